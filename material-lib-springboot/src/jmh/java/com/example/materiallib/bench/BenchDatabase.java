@@ -0,0 +1,113 @@
+package com.example.materiallib.bench;
+
+import com.example.materiallib.DefaultDatasetSeeder;
+import com.example.materiallib.SchemaInitializer;
+import com.example.materiallib.seed.CurveBlobWriter;
+import com.example.materiallib.seed.DatasetMeta;
+import com.example.materiallib.seed.DatasetScaler;
+import com.example.materiallib.seed.IncrementalSync;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * The on-disk dataset a benchmark runs against: the bundled CSVs scaled by {@code scale} with
+ * {@link DatasetScaler} and seeded into {@code <bench.dir>/x<scale>/materials.db}, both generated
+ * on first use and reused by later runs. Read benchmarks go through a read-only pool like the API's.
+ */
+public final class BenchDatabase implements AutoCloseable {
+
+    private static final long SEED = 42;
+
+    private final HikariDataSource readers;
+    private final JdbcTemplate jdbc;
+
+    private BenchDatabase(Path file) {
+        readers = new HikariDataSource();
+        readers.setJdbcUrl("jdbc:sqlite:" + file);
+        readers.setPoolName("bench-readers");
+        readers.setMaximumPoolSize(Runtime.getRuntime().availableProcessors());
+        readers.setReadOnly(true);
+        readers.addDataSourceProperty("open_mode", "1");
+        readers.addDataSourceProperty("journal_mode", "WAL");
+        jdbc = new JdbcTemplate(readers);
+    }
+
+    public static BenchDatabase open(int scale) {
+        Path dir = dir(scale);
+        Path file = dir.resolve("materials.db");
+        if (!Files.exists(file)) {
+            try {
+                Path data = dataDir(scale);
+                Path tmp = dir.resolve("materials.db.tmp");
+                Files.deleteIfExists(tmp);
+                seed(tmp, data);
+                Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot generate bench database in " + dir, e);
+            }
+        }
+        return new BenchDatabase(file);
+    }
+
+    /** Directory of the scaled CSVs, written on first use. */
+    public static Path dataDir(int scale) throws IOException {
+        Path data = dir(scale).resolve("data");
+        if (!Files.exists(data.resolve("done"))) {
+            new DatasetScaler(scale, 1, SEED).write(data);
+            Files.createFile(data.resolve("done"));
+        }
+        return data;
+    }
+
+    /**
+     * Creates the schema in {@code file} and runs the application's seeder over the CSVs in
+     * {@code data} on a single WAL connection, as the writer pool does at startup.
+     */
+    public static void seed(Path file, Path data) {
+        SingleConnectionDataSource ds = new SingleConnectionDataSource("jdbc:sqlite:" + file, true);
+        try {
+            JdbcTemplate writer = new JdbcTemplate(ds);
+            writer.execute("PRAGMA journal_mode=WAL");
+            writer.execute("PRAGMA foreign_keys=ON");
+            DefaultResourceLoader resources = new DefaultResourceLoader();
+            SchemaInitializer schema = new SchemaInitializer(ds, "classpath:schema.sql");
+            schema.setResourceLoader(resources);
+            schema.initializeDatabase();
+
+            DatasetMeta meta = new DatasetMeta(writer);
+            new DefaultDatasetSeeder(writer, resources, new DataSourceTransactionManager(ds), event -> {},
+                    meta, new IncrementalSync(writer, meta), new CurveBlobWriter(writer),
+                    data.toUri().toString()).run(null);
+            writer.execute("PRAGMA wal_checkpoint(TRUNCATE)");
+        } finally {
+            ds.destroy();
+        }
+    }
+
+    public static Path dir(int scale) {
+        return Path.of(System.getProperty("bench.dir", "target/bench"), "x" + scale).toAbsolutePath();
+    }
+
+    public JdbcTemplate jdbc() {
+        return jdbc;
+    }
+
+    public long[] ids(String table) {
+        return jdbc.query("SELECT id FROM " + table + " ORDER BY id", (rs, rowNum) -> rs.getLong(1))
+                .stream().mapToLong(Long::longValue).toArray();
+    }
+
+    @Override
+    public void close() {
+        readers.close();
+    }
+}
@@ -0,0 +1,156 @@
+package com.example.materiallib.bench;
+
+import com.example.materiallib.MaterialLibApplication;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The API's own responses, fetched over HTTP from the application started on the bench
+ * database: one material, a page of materials, a material bundle, a condition's properties, a
+ * curve's points and the points of all curves of a condition. Each is requested in every
+ * {@code format} the endpoint negotiates (json, cbor, smile) with and without
+ * {@code Accept-Encoding: gzip} ({@code encoding}), so the timings compare formats end to end:
+ * query, serialization, compression and transfer. Setup prints each response's size on the
+ * wire and its ratio to the uncompressed JSON response.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EndpointBenchmark {
+
+    private static final Map<String, String> ENDPOINTS = new LinkedHashMap<>();
+
+    static {
+        ENDPOINTS.put("material", "/api/materials/1");
+        ENDPOINTS.put("materialPage", "/api/materials?limit=500");
+        ENDPOINTS.put("bundle", "/api/materials/1/bundle?include=conditions,properties,curves,points");
+        ENDPOINTS.put("conditionProperties", "/api/conditions/1/properties?limit=1000");
+        ENDPOINTS.put("curvePoints", "/api/curves/1/points");
+        ENDPOINTS.put("conditionCurvePoints", "/api/conditions/1/curves/points");
+    }
+
+    @Param("10")
+    int scale;
+
+    @Param({"json", "cbor", "smile"})
+    String format;
+
+    @Param({"identity", "gzip"})
+    String encoding;
+
+    private ConfigurableApplicationContext app;
+    private HttpClient client;
+    private String base;
+    private String accept;
+
+    @Setup
+    public void setup() throws IOException {
+        accept = mediaType(format);
+        BenchDatabase.open(scale).close();
+        app = new SpringApplicationBuilder(MaterialLibApplication.class).run(
+                "--spring.datasource.url=jdbc:sqlite:" + BenchDatabase.dir(scale).resolve("materials.db"),
+                "--materiallib.data.location=" + BenchDatabase.dataDir(scale).toUri(),
+                "--materiallib.datasource.mode=wal",
+                "--server.port=0",
+                "--logging.level.root=warn",
+                "--spring.main.banner-mode=off");
+        base = "http://localhost:" + app.getEnvironment().getProperty("local.server.port");
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+        for (Map.Entry<String, String> endpoint : ENDPOINTS.entrySet()) {
+            int size = fetch(endpoint.getValue(), accept, encoding).length;
+            int json = fetch(endpoint.getValue(), mediaType("json"), "identity").length;
+            System.out.printf("%-22s %-6s %-8s %9d bytes, %5.2f of JSON%n",
+                    endpoint.getKey(), format, encoding, size, (double) size / json);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        app.close();
+    }
+
+    private static String mediaType(String format) {
+        return switch (format) {
+            case "json" -> "application/json";
+            case "cbor" -> "application/cbor";
+            case "smile" -> "application/x-jackson-smile";
+            default -> throw new IllegalArgumentException("Unknown format: " + format);
+        };
+    }
+
+    /** The response body as sent, still compressed when {@code encoding} is gzip. */
+    private byte[] fetch(String path, String accept, String encoding) {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(base + path))
+                .header("Accept", accept)
+                .header("Accept-Encoding", encoding)
+                .build();
+        try {
+            HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException(path + " answered " + response.statusCode());
+            }
+            return response.body();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Benchmark
+    public byte[] material() {
+        return fetch(ENDPOINTS.get("material"), accept, encoding);
+    }
+
+    @Benchmark
+    public byte[] materialPage() {
+        return fetch(ENDPOINTS.get("materialPage"), accept, encoding);
+    }
+
+    @Benchmark
+    public byte[] bundle() {
+        return fetch(ENDPOINTS.get("bundle"), accept, encoding);
+    }
+
+    @Benchmark
+    public byte[] conditionProperties() {
+        return fetch(ENDPOINTS.get("conditionProperties"), accept, encoding);
+    }
+
+    @Benchmark
+    public byte[] curvePoints() {
+        return fetch(ENDPOINTS.get("curvePoints"), accept, encoding);
+    }
+
+    @Benchmark
+    public byte[] conditionCurvePoints() {
+        return fetch(ENDPOINTS.get("conditionCurvePoints"), accept, encoding);
+    }
+}
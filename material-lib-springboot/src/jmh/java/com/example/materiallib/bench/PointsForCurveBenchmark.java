@@ -0,0 +1,78 @@
+package com.example.materiallib.bench;
+
+import com.example.materiallib.curve.PackedBlob;
+import com.example.materiallib.model.CurvePoint;
+import com.example.materiallib.repo.CurvePointRepository;
+import com.example.materiallib.repo.LookupBatching;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link CurvePointRepository#pointsForCurve} end to end (pool, query, row mapping) for the
+ * curves of the bench database in turn, next to reading the same curve's packed blob.
+ * Run with {@code -t} above 1 to include contention on the read pool.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PointsForCurveBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Curves {
+
+        @Param("10")
+        int scale;
+
+        BenchDatabase db;
+        CurvePointRepository repo;
+        long[] ids;
+
+        @Setup
+        public void setup() {
+            db = BenchDatabase.open(scale);
+            repo = new CurvePointRepository(db.jdbc(), LookupBatching.defaults());
+            ids = db.ids("curves");
+        }
+
+        @TearDown
+        public void close() {
+            db.close();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next;
+
+        long nextId(Curves curves) {
+            long id = curves.ids[next];
+            next = (next + 1) % curves.ids.length;
+            return id;
+        }
+    }
+
+    @Benchmark
+    public List<CurvePoint> pointsForCurve(Curves curves, Cursor cursor) {
+        return curves.repo.pointsForCurve(cursor.nextId(curves));
+    }
+
+    @Benchmark
+    public PackedBlob packedForCurve(Curves curves, Cursor cursor) {
+        return curves.repo.packedForCurve(cursor.nextId(curves));
+    }
+}
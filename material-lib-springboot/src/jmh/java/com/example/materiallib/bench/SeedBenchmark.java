@@ -0,0 +1,175 @@
+package com.example.materiallib.bench;
+
+import com.example.materiallib.SchemaInitializer;
+import com.example.materiallib.seed.CsvSource;
+import com.example.materiallib.seed.SeedTable;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Seeding an empty database from the scaled CSVs.
+ * <p>
+ * {@code fullSeed} runs {@code DefaultDatasetSeeder} end to end. {@code table} loads a single
+ * table the way the seeder's writer does (convert, batched insert in one transaction with
+ * {@code synchronous=OFF} and foreign keys on) into a copy of a database that already holds
+ * its parents; the row count per table at the chosen scale is logged in the setup.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class SeedBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class FullSeed {
+
+        @Param("10")
+        int scale;
+
+        Path data;
+        Path file;
+
+        @Setup(Level.Trial)
+        public void generate() throws IOException {
+            data = BenchDatabase.dataDir(scale);
+            file = BenchDatabase.dir(scale).resolve("seed-bench.db");
+        }
+
+        @Setup(Level.Invocation)
+        public void clean() throws IOException {
+            for (String suffix : List.of("", "-wal", "-shm")) Files.deleteIfExists(Path.of(file + suffix));
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class TableLoad {
+
+        @Param("10")
+        int scale;
+
+        @Param({"materials", "conditions", "condition_properties", "curves", "curve_points"})
+        String table;
+
+        SeedTable seedTable;
+        Path csv;
+        Path parents;
+        Path file;
+        SingleConnectionDataSource ds;
+
+        @Setup(Level.Trial)
+        public void generate() throws IOException {
+            seedTable = SeedTable.fromTable(table);
+            csv = BenchDatabase.dataDir(scale).resolve(seedTable.fileName());
+            parents = BenchDatabase.dir(scale).resolve("parents-" + table + ".db");
+            file = BenchDatabase.dir(scale).resolve("table-bench.db");
+            Files.deleteIfExists(parents);
+
+            SingleConnectionDataSource template = open(parents);
+            try {
+                for (SeedTable t : SeedTable.values()) {
+                    if (t.ordinal() < seedTable.ordinal()) load(template, t, csv.resolveSibling(t.fileName()));
+                }
+            } finally {
+                template.destroy();
+            }
+            long rows = 0;
+            try (CSVParser records = CsvSource.open(new FileSystemResource(csv))) {
+                for (CSVRecord ignored : records) rows++;
+            }
+            System.out.printf("%n%s at scale %d: %d rows%n", table, scale, rows);
+        }
+
+        @Setup(Level.Invocation)
+        public void copy() throws IOException {
+            Files.copy(parents, file, StandardCopyOption.REPLACE_EXISTING);
+            ds = open(file);
+        }
+
+        @TearDown(Level.Invocation)
+        public void close() {
+            ds.destroy();
+        }
+
+        @TearDown(Level.Trial)
+        public void delete() throws IOException {
+            Files.deleteIfExists(parents);
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Benchmark
+    public void fullSeed(FullSeed state) {
+        BenchDatabase.seed(state.file, state.data);
+    }
+
+    @Benchmark
+    public long table(TableLoad state) throws IOException {
+        return load(state.ds, state.seedTable, state.csv);
+    }
+
+    private static SingleConnectionDataSource open(Path file) {
+        SingleConnectionDataSource ds = new SingleConnectionDataSource("jdbc:sqlite:" + file, true);
+        JdbcTemplate jdbc = new JdbcTemplate(ds);
+        jdbc.execute("PRAGMA journal_mode=WAL");
+        jdbc.execute("PRAGMA synchronous=OFF");
+        jdbc.execute("PRAGMA foreign_keys=ON");
+        SchemaInitializer schema = new SchemaInitializer(ds, "classpath:schema.sql");
+        schema.setResourceLoader(new DefaultResourceLoader());
+        schema.initializeDatabase();
+        return ds;
+    }
+
+    /** The seeder's writer for one table; default conditions are left unset, as in its first pass. */
+    private static long load(SingleConnectionDataSource ds, SeedTable table, Path csv) throws IOException {
+        JdbcTemplate jdbc = new JdbcTemplate(ds);
+        String sql = table.insertSql();
+        int defaultCol = table == SeedTable.MATERIALS ? table.columns().indexOf("default_condition_id") : -1;
+        try (CSVParser records = CsvSource.open(new FileSystemResource(csv))) {
+            Long rows = new TransactionTemplate(new DataSourceTransactionManager(ds)).execute(status -> {
+                long n = 0;
+                List<Object[]> batch = new ArrayList<>(table.batchSize());
+                for (CSVRecord r : records) {
+                    Object[] row = table.convert(r::get);
+                    if (defaultCol >= 0) row[defaultCol] = null;
+                    batch.add(row);
+                    if (batch.size() >= table.batchSize()) {
+                        jdbc.batchUpdate(sql, batch);
+                        n += batch.size();
+                        batch.clear();
+                    }
+                }
+                if (!batch.isEmpty()) jdbc.batchUpdate(sql, batch);
+                return n + batch.size();
+            });
+            return rows == null ? 0 : rows;
+        }
+    }
+}
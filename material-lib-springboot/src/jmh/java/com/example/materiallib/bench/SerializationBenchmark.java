@@ -0,0 +1,123 @@
+package com.example.materiallib.bench;
+
+import com.example.materiallib.model.ConditionProperty;
+import com.example.materiallib.model.Curve;
+import com.example.materiallib.model.CurvePoint;
+import com.example.materiallib.model.Material;
+import com.example.materiallib.model.MaterialCondition;
+import com.example.materiallib.repo.ConditionRepository;
+import com.example.materiallib.repo.CurvePointRepository;
+import com.example.materiallib.repo.CurveRepository;
+import com.example.materiallib.repo.LookupBatching;
+import com.example.materiallib.repo.MaterialRepository;
+import com.example.materiallib.repo.PropertyRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Jackson serialization of the model records as the API returns them: one material, a page
+ * of materials, a condition with its properties and curves, and a curve's points. Uses an
+ * {@link ObjectMapper} with Spring Boot's defaults, for each format the API negotiates
+ * ({@code format}: json, cbor or smile). Setup prints each payload's size, raw and gzipped.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializationBenchmark {
+
+    @Param("10")
+    int scale;
+
+    @Param({"json", "cbor", "smile"})
+    String format;
+
+    private ObjectWriter writer;
+    private Material material;
+    private List<Material> materials;
+    private MaterialCondition condition;
+    private List<ConditionProperty> properties;
+    private List<Curve> curves;
+    private List<CurvePoint> points;
+
+    @Setup
+    public void setup() {
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json();
+        ObjectMapper mapper = switch (format) {
+            case "json" -> builder.build();
+            case "cbor" -> builder.factory(new CBORFactory()).build();
+            case "smile" -> builder.factory(new SmileFactory()).build();
+            default -> throw new IllegalArgumentException("Unknown format: " + format);
+        };
+        writer = mapper.writer();
+        try (BenchDatabase db = BenchDatabase.open(scale)) {
+            MaterialRepository materialRepo = new MaterialRepository(db.jdbc(), LookupBatching.defaults());
+            material = materialRepo.findById(1).orElseThrow();
+            materials = materialRepo.page(null, null, null, 0, 100);
+            condition = new ConditionRepository(db.jdbc(), LookupBatching.defaults()).findById(1).orElseThrow();
+            properties = new PropertyRepository(db.jdbc()).page(condition.id(), null, 0, 1000);
+            curves = new CurveRepository(db.jdbc(), LookupBatching.defaults()).findByConditionId(condition.id());
+            points = new CurvePointRepository(db.jdbc(), LookupBatching.defaults()).pointsForCurve(curves.get(0).id());
+        }
+        try {
+            printSize("material", material());
+            printSize("materialPage", materialPage());
+            printSize("conditionWithProperties", conditionWithProperties());
+            printSize("curvePoints", curvePoints());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void printSize(String payload, byte[] bytes) throws IOException {
+        ByteArrayOutputStream gzipped = new ByteArrayOutputStream();
+        try (GZIPOutputStream gz = new GZIPOutputStream(gzipped)) {
+            gz.write(bytes);
+        }
+        System.out.printf("%-24s %-6s %9d bytes, %9d gzipped%n", payload, format, bytes.length, gzipped.size());
+    }
+
+    @Benchmark
+    public byte[] material() throws JsonProcessingException {
+        return writer.writeValueAsBytes(material);
+    }
+
+    @Benchmark
+    public byte[] materialPage() throws JsonProcessingException {
+        return writer.writeValueAsBytes(materials);
+    }
+
+    @Benchmark
+    public byte[] conditionWithProperties() throws JsonProcessingException {
+        return writer.writeValueAsBytes(List.of(condition, properties, curves));
+    }
+
+    @Benchmark
+    public byte[] curvePoints() throws JsonProcessingException {
+        return writer.writeValueAsBytes(points);
+    }
+}
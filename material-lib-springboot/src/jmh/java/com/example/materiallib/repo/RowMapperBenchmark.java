@@ -0,0 +1,83 @@
+package com.example.materiallib.repo;
+
+import com.example.materiallib.bench.BenchDatabase;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The repositories' row mappers over {@code SELECT *} pages of {@code rows} rows.
+ * <p>
+ * {@code scan} steps through the same result set reading only the first column, so
+ * {@code map - scan} is the cost of the mapper itself: column lookup by name, the boxed
+ * {@code (Double) rs.getObject} reads and the record allocation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RowMapperBenchmark {
+
+    @Param("10")
+    int scale;
+
+    @Param({"materials", "conditions", "condition_properties", "curves", "curve_points"})
+    String table;
+
+    @Param("1000")
+    int rows;
+
+    private BenchDatabase db;
+    private JdbcTemplate jdbc;
+    private RowMapper<?> mapper;
+    private String sql;
+
+    @Setup
+    public void setup() {
+        db = BenchDatabase.open(scale);
+        jdbc = db.jdbc();
+        mapper = switch (table) {
+            case "materials" -> new MaterialRepository(jdbc, LookupBatching.defaults()).mapper();
+            case "conditions" -> new ConditionRepository(jdbc, LookupBatching.defaults()).mapper();
+            case "condition_properties" -> new PropertyRepository(jdbc).mapper();
+            case "curves" -> new CurveRepository(jdbc, LookupBatching.defaults()).mapper();
+            case "curve_points" -> new CurvePointRepository(jdbc, LookupBatching.defaults()).mapper();
+            default -> throw new IllegalArgumentException("Unknown table: " + table);
+        };
+        sql = "SELECT * FROM " + table + " LIMIT " + rows;
+    }
+
+    @TearDown
+    public void close() {
+        db.close();
+    }
+
+    @Benchmark
+    public List<?> map() {
+        return jdbc.query(sql, mapper);
+    }
+
+    @Benchmark
+    public void scan(Blackhole bh) {
+        jdbc.query(sql, rs -> {
+            bh.consume(rs.getLong(1));
+        });
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.materiallib;
+
+import com.example.materiallib.repo.EntityCaches;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Collection;
+
+/**
+ * Read-through caches for the entity lookups in the repositories (see {@link EntityCaches}).
+ * <p>
+ * Each cache is a Caffeine (W-TinyLFU) cache bounded by weight: one unit per cached entity,
+ * so a list of 40 conditions weighs 40. {@code materiallib.cache.max-weight} bounds each cache.
+ */
+@Configuration(proxyBeanMethods = false)
+@EnableCaching
+public class CacheConfig {
+
+    @Bean
+    public CacheManager cacheManager(@Value("${materiallib.cache.max-weight:100000}") long maxWeight) {
+        CaffeineCacheManager manager = new CaffeineCacheManager();
+        manager.setCaffeine(Caffeine.newBuilder()
+                .maximumWeight(maxWeight)
+                .weigher((Object key, Object value) -> value instanceof Collection<?> c ? Math.max(1, c.size()) : 1)
+                .recordStats());
+        manager.setCacheNames(EntityCaches.ALL);
+        return manager;
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.materiallib;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+
+/**
+ * Data sources for the SQLite file.
+ * <p>
+ * {@code materiallib.datasource.mode=single} (the default) keeps one pool, configured by
+ * {@code spring.datasource.*}, for everything. {@code wal} switches the file to WAL journaling
+ * so readers no longer block on the writer, keeps that pool as the single writer, and adds a
+ * pool of read-only connections ({@code materiallib.datasource.readers}, default: one per core)
+ * behind the {@code readJdbc} template that the repositories query through.
+ */
+@Configuration(proxyBeanMethods = false)
+public class DatabaseConfig {
+
+    /** Read-only connections opened with SQLITE_OPEN_READONLY. */
+    private static final String SQLITE_OPEN_READONLY = "1";
+
+    @Bean
+    @Primary
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource dataSource(DataSourceProperties properties,
+                                       @Value("${materiallib.datasource.mode:single}") String mode) {
+        HikariDataSource ds = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        if (isWal(mode)) {
+            ds.addDataSourceProperty("journal_mode", "WAL");
+            ds.addDataSourceProperty("synchronous", "NORMAL");
+        }
+        return ds;
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "materiallib.datasource.mode", havingValue = "wal")
+    public HikariDataSource readDataSource(DataSourceProperties properties,
+                                           @Value("${materiallib.datasource.readers:0}") int readers) {
+        HikariDataSource ds = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        ds.setPoolName("sqlite-readers");
+        ds.setMaximumPoolSize(readers > 0 ? readers : Runtime.getRuntime().availableProcessors());
+        ds.setReadOnly(true);
+        ds.addDataSourceProperty("open_mode", SQLITE_OPEN_READONLY);
+        ds.addDataSourceProperty("journal_mode", "WAL");
+        return ds;
+    }
+
+    /** Replaces {@code spring.sql.init}: applies schema.sql only when it has changed. */
+    @Bean
+    public SchemaInitializer schemaInitializer(DataSource dataSource) {
+        return new SchemaInitializer(dataSource, "classpath:schema.sql");
+    }
+
+    /** Writer template; used for schema init, seeding and anything else that writes. */
+    @Bean
+    @Primary
+    public JdbcTemplate jdbcTemplate(DataSource dataSource) {
+        return new JdbcTemplate(dataSource);
+    }
+
+    /** Template for read-only queries; the writer pool itself when not in WAL mode. */
+    @Bean
+    public JdbcTemplate readJdbc(JdbcTemplate jdbcTemplate,
+                                 @Qualifier("readDataSource") ObjectProvider<DataSource> readDataSource) {
+        DataSource readers = readDataSource.getIfAvailable();
+        return readers == null ? jdbcTemplate : new JdbcTemplate(readers);
+    }
+
+    private static boolean isWal(String mode) {
+        return "wal".equalsIgnoreCase(mode.trim());
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.materiallib;
+
+import java.util.Set;
+
+/**
+ * Published after a write to the dataset has been committed, so that in-memory
+ * views derived from the database (snapshots, indexes, caches) can be rebuilt.
+ *
+ * @param source short label of the writer, e.g. {@code "seed"}
+ * @param tables names of the tables that were written
+ */
+public record DatasetChangedEvent(String source, Set<String> tables) {
+
+    public boolean touches(String table) {
+        return tables.contains(table);
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.materiallib;
+
+import com.example.materiallib.seed.DatasetMeta;
+import com.example.materiallib.seed.SeedTable;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Last-modified time of each table, kept in {@code dataset_meta} and in memory, for HTTP
+ * validators. A table's time moves forward on every {@link DatasetChangedEvent} that touches
+ * it, so a response built only from unchanged tables can be revalidated without a query.
+ * <p>
+ * Times are strictly increasing per table (two writes in the same millisecond still differ)
+ * and double as the table's revision in ETags.
+ * <p>
+ * Stamps are loaded, and any missing ones written, once at startup before the web server
+ * accepts requests; after that only dataset changes write them, so revalidating a request
+ * never competes with imports for the writer connection.
+ */
+@Component
+public class DatasetRevisions implements SmartInitializingSingleton {
+
+    private static final String KEY_PREFIX = "modified.";
+
+    private final DatasetMeta meta;
+    private final Map<String, Long> modified = new ConcurrentHashMap<>();
+
+    public DatasetRevisions(DatasetMeta meta) {
+        this.meta = meta;
+    }
+
+    /**
+     * Validators for a response derived from {@code tables}. {@code variant} distinguishes
+     * representations served from the same URL (e.g. JSON and binary).
+     */
+    public Stamp stamp(String variant, String... tables) {
+        long last = 0;
+        for (String table : tables) last = Math.max(last, modified(table));
+        return new Stamp("W/\"" + variant + "-" + Long.toHexString(last) + "\"", last);
+    }
+
+    /** Last-modified time of {@code table}; a table without a stamp counts from now, in memory only. */
+    public long modified(String table) {
+        return modified.computeIfAbsent(table, t -> System.currentTimeMillis());
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        meta.entries(KEY_PREFIX).forEach((key, value) ->
+                modified.put(key.substring(KEY_PREFIX.length()), Long.parseLong(value)));
+        List<String> tables = new ArrayList<>();
+        for (SeedTable t : SeedTable.values()) tables.add(t.table());
+        tables.add("curve_point_blobs");
+        for (String table : tables) {
+            if (!modified.containsKey(table)) touch(table);
+        }
+    }
+
+    @EventListener
+    public void onDatasetChanged(DatasetChangedEvent event) {
+        event.tables().forEach(this::touch);
+    }
+
+    private synchronized long touch(String table) {
+        long now = Math.max(System.currentTimeMillis(), modified.getOrDefault(table, 0L) + 1);
+        meta.put(KEY_PREFIX + table, Long.toString(now));
+        modified.put(table, now);
+        return now;
+    }
+
+    /**
+     * Weak ETag and Last-Modified time in epoch millis. The ETag is weak so that gzip, which
+     * changes the bytes but not the content, may still be applied to the response.
+     */
+    public record Stamp(String etag, long lastModified) {}
+}
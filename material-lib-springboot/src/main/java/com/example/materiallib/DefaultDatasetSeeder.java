@@ -1,9 +1,19 @@
 package com.example.materiallib;
 
-import org.apache.commons.csv.CSVFormat;
+import com.example.materiallib.seed.CsvSource;
+import com.example.materiallib.seed.CurveBlobWriter;
+import com.example.materiallib.seed.DatasetMeta;
+import com.example.materiallib.seed.Hashing;
+import com.example.materiallib.seed.IncrementalSync;
+import com.example.materiallib.seed.SeedTable;
+import org.apache.commons.csv.CSVParser;
 import org.apache.commons.csv.CSVRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.ApplicationArguments;
 import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.ResourceLoader;
 import org.springframework.jdbc.core.JdbcTemplate;
@@ -11,350 +21,347 @@ import org.springframework.stereotype.Component;
 import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.support.TransactionTemplate;
 
-import java.io.InputStreamReader;
-import java.nio.charset.StandardCharsets;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.EnumSet;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
-
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Keeps the database in sync with the bundled CSVs, or with the CSVs under
+ * {@code materiallib.data.location} when set (e.g. {@code file:/data/scaled/}).
+ * <p>
+ * Each file's size and modification time, its SHA-256 and the resulting dataset version are
+ * recorded in {@code dataset_meta}. On start an unchanged dataset is detected from the
+ * fingerprints alone and skipped. An empty database gets a full load; otherwise only the
+ * files whose hash changed are applied, row by row, through {@link IncrementalSync}.
+ * <p>
+ * The full load is a pipeline: every CSV is parsed and converted on its own worker thread into
+ * bounded queues of insert batches, while the startup thread is the single writer that drains
+ * them in foreign key order inside one transaction. Secondary indexes are dropped for the bulk
+ * load and rebuilt afterwards, and the connection runs with {@code synchronous=OFF} (and an
+ * in-memory rollback journal unless the file is in WAL mode) for the duration of the load.
+ */
 @Component
 public class DefaultDatasetSeeder implements ApplicationRunner {
 
+    private static final Logger log = LoggerFactory.getLogger(DefaultDatasetSeeder.class);
+
+    /** Insert batches buffered per table ahead of the writer. */
+    private static final int QUEUE_BATCHES = 8;
+    private static final List<Object[]> END = List.of();
+
     private final JdbcTemplate jdbc;
     private final ResourceLoader resourceLoader;
     private final TransactionTemplate tx;
+    private final ApplicationEventPublisher events;
+    private final DatasetMeta meta;
+    private final IncrementalSync incremental;
+    private final CurveBlobWriter blobs;
+    private final String dataLocation;
 
     public DefaultDatasetSeeder(JdbcTemplate jdbc,
                                 ResourceLoader resourceLoader,
-                                PlatformTransactionManager txManager) {
+                                PlatformTransactionManager txManager,
+                                ApplicationEventPublisher events,
+                                DatasetMeta meta,
+                                IncrementalSync incremental,
+                                CurveBlobWriter blobs,
+                                @Value("${materiallib.data.location:classpath:data/}") String dataLocation) {
         this.jdbc = jdbc;
         this.resourceLoader = resourceLoader;
         this.tx = new TransactionTemplate(txManager);
+        this.events = events;
+        this.meta = meta;
+        this.incremental = incremental;
+        this.blobs = blobs;
+        this.dataLocation = dataLocation.endsWith("/") ? dataLocation : dataLocation + "/";
     }
 
     @Override
     public void run(ApplicationArguments args) {
-        // Seed only if empty
-        Long count = jdbc.queryForObject("SELECT COUNT(*) FROM materials", Long.class);
-        if (count != null && count > 0) return;
+        long start = System.nanoTime();
+        boolean empty = Boolean.FALSE.equals(
+                jdbc.queryForObject("SELECT EXISTS(SELECT 1 FROM materials)", Boolean.class));
+        Optional<String> storedVersion = meta.get(DatasetMeta.DATASET_VERSION);
+
+        Map<SeedTable, Resource> files = new EnumMap<>(SeedTable.class);
+        Map<SeedTable, String> fingerprints = new EnumMap<>(SeedTable.class);
+        boolean fingerprintsMatch = true;
+        for (SeedTable t : SeedTable.values()) {
+            Resource r = resourceLoader.getResource(dataLocation + t.fileName());
+            files.put(t, r);
+            fingerprints.put(t, fingerprint(r));
+            fingerprintsMatch &= meta.get(fingerprintKey(t)).equals(Optional.of(fingerprints.get(t)));
+        }
+        if (!empty && storedVersion.isPresent() && fingerprintsMatch) {
+            log.info("Dataset {} unchanged, skipping seed", storedVersion.get());
+            return;
+        }
 
-        tx.execute(status -> {
-            try {
-                jdbc.execute("PRAGMA foreign_keys=ON;");
+        Map<SeedTable, String> hashes = new EnumMap<>(SeedTable.class);
+        List<SeedTable> changed = new ArrayList<>();
+        for (SeedTable t : SeedTable.values()) {
+            Optional<String> storedHash = meta.get(hashKey(t));
+            boolean sameFile = storedHash.isPresent() && meta.get(fingerprintKey(t)).equals(Optional.of(fingerprints.get(t)));
+            String hash = sameFile ? storedHash.get() : contentHash(files.get(t));
+            hashes.put(t, hash);
+            if (!storedHash.equals(Optional.of(hash))) changed.add(t);
+        }
+        String version = Hashing.sha256(hashes.values()).substring(0, 16);
+        Runnable recordVersion = () -> {
+            for (SeedTable t : SeedTable.values()) {
+                meta.put(fingerprintKey(t), fingerprints.get(t));
+                meta.put(hashKey(t), hashes.get(t));
+            }
+            meta.put(DatasetMeta.DATASET_VERSION, version);
+        };
 
-                Map<Long, Long> defaultCondByMaterial = seedMaterials("classpath:data/materials.csv");
-                seedConditions("classpath:data/conditions.csv");
-                applyDefaultConditions(defaultCondByMaterial);
+        if (!empty && changed.isEmpty()) {
+            tx.executeWithoutResult(status -> recordVersion.run());
+            log.info("Dataset {} unchanged (files rebuilt), skipping seed", version);
+            return;
+        }
 
-                seedConditionProperties("classpath:data/condition_properties.csv");
-                seedCurves("classpath:data/curves.csv");
-                seedCurvePoints("classpath:data/curve_points.csv");
+        Set<String> touched = empty
+                ? fullSeed(files, recordVersion)
+                : incrementalSeed(files, changed, recordVersion);
+        log.info("Seeded dataset {} in {} ms", version, (System.nanoTime() - start) / 1_000_000);
 
-                return null;
-            } catch (Exception e) {
-                status.setRollbackOnly();
-                throw new RuntimeException("Failed seeding dataset", e);
-            }
-        });
+        events.publishEvent(new DatasetChangedEvent("seed", touched));
     }
 
-    private Map<Long, Long> seedMaterials(String path) throws Exception {
-        Resource csv = resourceLoader.getResource(path);
-        Map<Long, Long> defaultCond = new HashMap<>();
-
-        String sql = """
-                INSERT INTO materials(
-                  id, name, category, family, grade,
-                  standard_system, standard_designation, uns, en_number,
-                  tags, notes, source_type, source_name, confidence,
-                  density, youngs_modulus, poisson_ratio, yield_strength, ultimate_strength,
-                  toughness, thermal_expansion, melting_point, thermal_conductivity,
-                  created_at, updated_at, default_condition_id
-                )
-                VALUES (?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?)
-                """;
-
-        try (var reader = new InputStreamReader(csv.getInputStream(), StandardCharsets.UTF_8)) {
-            Iterable<CSVRecord> records = CSVFormat.DEFAULT.builder()
-                    .setHeader()
-                    .setSkipHeaderRecord(true)
-                    .setTrim(true)
-                    .build()
-                    .parse(reader);
-
-            List<Object[]> batch = new ArrayList<>(500);
+    private Set<String> fullSeed(Map<SeedTable, Resource> files, Runnable recordVersion) {
+        List<TableStats> stats = new ArrayList<>();
+        ExecutorService parsers = Executors.newFixedThreadPool(
+                Math.min(SeedTable.values().length, Runtime.getRuntime().availableProcessors()),
+                parserThreads());
+        Map<SeedTable, Pipe> pipes = new EnumMap<>(SeedTable.class);
+        for (SeedTable table : SeedTable.values()) {
+            Pipe pipe = new Pipe();
+            pipes.put(table, pipe);
+            parsers.submit(() -> parse(table, files.get(table), pipe));
+        }
 
-            for (CSVRecord r : records) {
-                long id = Long.parseLong(r.get("id"));
-                // Store for later (we can't set FK until conditions exist)
-                defaultCond.put(id, parseLongOrNull(r.get("default_condition_id")));
-
-                batch.add(new Object[]{
-                        id,
-                        emptyToNull(r.get("name")),
-                        emptyToNull(r.get("category")),
-                        emptyToNull(r.get("family")),
-                        emptyToNull(r.get("grade")),
-                        emptyToNull(r.get("standard_system")),
-                        emptyToNull(r.get("standard_designation")),
-                        emptyToNull(r.get("uns")),
-                        emptyToNull(r.get("en_number")),
-                        emptyToNull(r.get("tags")),
-                        emptyToNull(r.get("notes")),
-                        emptyToNull(r.get("source_type")),
-                        emptyToNull(r.get("source_name")),
-                        emptyToNull(r.get("confidence")),
-                        parseDoubleOrNull(r.get("density")),
-                        parseDoubleOrNull(r.get("youngs_modulus")),
-                        parseDoubleOrNull(r.get("poisson_ratio")),
-                        parseDoubleOrNull(r.get("yield_strength")),
-                        parseDoubleOrNull(r.get("ultimate_strength")),
-                        parseDoubleOrNull(r.get("toughness")),
-                        parseDoubleOrNull(r.get("thermal_expansion")),
-                        parseDoubleOrNull(r.get("melting_point")),
-                        parseDoubleOrNull(r.get("thermal_conductivity")),
-                        emptyToNull(r.get("created_at")),
-                        emptyToNull(r.get("updated_at")),
-                        null // default_condition_id set later
-                });
-
-                if (batch.size() >= 500) {
-                    jdbc.batchUpdate(sql, batch);
-                    batch.clear();
+        String journalMode = jdbc.queryForObject("PRAGMA journal_mode", String.class);
+        Integer synchronous = jdbc.queryForObject("PRAGMA synchronous", Integer.class);
+        boolean wal = "wal".equalsIgnoreCase(journalMode);
+        try {
+            if (!wal) jdbc.execute("PRAGMA journal_mode=MEMORY");
+            jdbc.execute("PRAGMA synchronous=OFF");
+
+            tx.execute(status -> {
+                try {
+                    jdbc.execute("PRAGMA foreign_keys=ON;");
+                    jdbc.update("DELETE FROM dataset_row_hashes");
+                    List<String> indexes = dropSecondaryIndexes();
+
+                    // default_condition_id references conditions, so it is set once they exist
+                    List<Object[]> defaultConditions = new ArrayList<>();
+                    int defaultCol = SeedTable.MATERIALS.columns().indexOf("default_condition_id");
+                    stats.add(write(SeedTable.MATERIALS, pipes.get(SeedTable.MATERIALS), row -> {
+                        if (row[defaultCol] != null) defaultConditions.add(new Object[]{row[defaultCol], row[0]});
+                        row[defaultCol] = null;
+                    }));
+                    stats.add(write(SeedTable.CONDITIONS, pipes.get(SeedTable.CONDITIONS), null));
+                    applyDefaultConditions(defaultConditions);
+
+                    stats.add(write(SeedTable.CONDITION_PROPERTIES, pipes.get(SeedTable.CONDITION_PROPERTIES), null));
+                    stats.add(write(SeedTable.CURVES, pipes.get(SeedTable.CURVES), null));
+                    stats.add(write(SeedTable.CURVE_POINTS, pipes.get(SeedTable.CURVE_POINTS), null));
+
+                    long t = System.nanoTime();
+                    int curves = blobs.packAll();
+                    stats.add(new TableStats("curve_point_blobs", curves, System.nanoTime() - t));
+
+                    t = System.nanoTime();
+                    indexes.forEach(jdbc::execute);
+                    log.info("Rebuilt {} secondary indexes in {} ms", indexes.size(), (System.nanoTime() - t) / 1_000_000);
+
+                    pipes.forEach((table, pipe) -> meta.saveRowHashes(table.table(), pipe.hashes, List.of()));
+                    recordVersion.run();
+                    return null;
+                } catch (Exception e) {
+                    status.setRollbackOnly();
+                    throw new RuntimeException("Failed seeding dataset", e);
                 }
-            }
+            });
+        } finally {
+            parsers.shutdownNow();
+            jdbc.execute("PRAGMA synchronous=" + (synchronous == null ? 2 : synchronous));
+            if (!wal) jdbc.execute("PRAGMA journal_mode=" + journalMode);
+        }
 
-            if (!batch.isEmpty()) jdbc.batchUpdate(sql, batch);
+        for (TableStats s : stats) {
+            log.info("Seeded {}: {} rows in {} ms ({} rows/s)", s.table(), s.rows(), s.nanos() / 1_000_000, s.rowsPerSecond());
         }
-        return defaultCond;
+        Set<String> touched = new LinkedHashSet<>();
+        for (SeedTable t : SeedTable.values()) touched.add(t.table());
+        touched.add("curve_point_blobs");
+        return touched;
     }
 
-    private void seedConditions(String path) throws Exception {
-        Resource csv = resourceLoader.getResource(path);
-
-        String sql = """
-                INSERT INTO conditions(
-                  id, material_id, condition_name, process_route, product_form,
-                  heat_treatment, notes, is_default, created_at, updated_at
-                )
-                VALUES (?,?,?,?,?,?,?,?,?,?)
-                """;
-
-        try (var reader = new InputStreamReader(csv.getInputStream(), StandardCharsets.UTF_8)) {
-            Iterable<CSVRecord> records = CSVFormat.DEFAULT.builder()
-                    .setHeader()
-                    .setSkipHeaderRecord(true)
-                    .setTrim(true)
-                    .build()
-                    .parse(reader);
-
-            List<Object[]> batch = new ArrayList<>(500);
+    private Set<String> incrementalSeed(Map<SeedTable, Resource> files, List<SeedTable> changed, Runnable recordVersion) {
+        Set<String> touched = new LinkedHashSet<>();
+        tx.execute(status -> {
+            try {
+                // Parents and children may arrive in either order; check references at commit
+                jdbc.execute("PRAGMA defer_foreign_keys=ON");
+                Set<SeedTable> pending = EnumSet.noneOf(SeedTable.class);
+                pending.addAll(changed);
+                for (SeedTable table : SeedTable.values()) {
+                    if (!pending.contains(table)) continue;
+                    long t = System.nanoTime();
+                    IncrementalSync.Result r = incremental.sync(table, files.get(table));
+                    log.info("Synced {}: {} keys written, {} removed in {} ms",
+                            table.table(), r.written(), r.removed(), (System.nanoTime() - t) / 1_000_000);
+                    touched.addAll(r.cascaded());
+                    // children follow their parents in SeedTable order; re-diffing a table the
+                    // cascade reached restores rows its file still has, or fails on orphans at commit
+                    for (SeedTable child : SeedTable.values()) {
+                        if (r.cascaded().contains(child.table())) pending.add(child);
+                    }
+                    if (r.touchedKeys().isEmpty()) continue;
+                    touched.add(table.table());
+                    if (table == SeedTable.CURVE_POINTS) {
+                        blobs.pack(r.touchedKeys());
+                        touched.add("curve_point_blobs");
+                    }
+                }
+                recordVersion.run();
+                return null;
+            } catch (Exception e) {
+                status.setRollbackOnly();
+                throw new RuntimeException("Failed updating dataset", e);
+            }
+        });
+        return touched;
+    }
 
+    /** Parser task: converts one CSV into insert batches on the table's pipe and hashes its rows. */
+    private void parse(SeedTable table, Resource csv, Pipe pipe) {
+        try (CSVParser records = CsvSource.open(csv)) {
+            List<Object[]> batch = new ArrayList<>(table.batchSize());
             for (CSVRecord r : records) {
-                batch.add(new Object[]{
-                        Long.parseLong(r.get("id")),
-                        Long.parseLong(r.get("material_id")),
-                        emptyToNull(r.get("condition_name")),
-                        emptyToNull(r.get("process_route")),
-                        emptyToNull(r.get("product_form")),
-                        emptyToNull(r.get("heat_treatment")),
-                        emptyToNull(r.get("notes")),
-                        parseBooleanToInt(r.get("is_default")),
-                        emptyToNull(r.get("created_at")),
-                        emptyToNull(r.get("updated_at"))
-                });
-
-                if (batch.size() >= 500) {
-                    jdbc.batchUpdate(sql, batch);
-                    batch.clear();
+                batch.add(table.convert(r::get));
+                pipe.hashes.merge(table.keyOf(r::get), Hashing.rowHash(r), Long::sum);
+                if (batch.size() >= table.batchSize()) {
+                    pipe.queue.put(batch);
+                    batch = new ArrayList<>(table.batchSize());
                 }
             }
+            if (!batch.isEmpty()) pipe.queue.put(batch);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        } catch (Exception e) {
+            pipe.error = e;
+        }
+        try {
+            pipe.queue.put(END);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
 
-            if (!batch.isEmpty()) jdbc.batchUpdate(sql, batch);
+    /** Drains one table's pipe into batched inserts; {@code beforeInsert} may rewrite each row. */
+    private TableStats write(SeedTable table, Pipe pipe, Consumer<Object[]> beforeInsert) throws Exception {
+        long start = System.nanoTime();
+        String sql = table.insertSql();
+        long rows = 0;
+        for (List<Object[]> batch = pipe.queue.take(); batch != END; batch = pipe.queue.take()) {
+            if (beforeInsert != null) batch.forEach(beforeInsert);
+            jdbc.batchUpdate(sql, batch);
+            rows += batch.size();
         }
+        if (pipe.error != null) throw new IllegalStateException("Failed parsing " + table.fileName(), pipe.error);
+        return new TableStats(table.table(), rows, System.nanoTime() - start);
     }
 
-    private void applyDefaultConditions(Map<Long, Long> defaultCondByMaterial) {
+    private void applyDefaultConditions(List<Object[]> defaultConditions) {
         String sql = "UPDATE materials SET default_condition_id = ? WHERE id = ?";
-        for (var e : defaultCondByMaterial.entrySet()) {
-            Long materialId = e.getKey();
-            Long condId = e.getValue();
-            if (condId != null) {
-                jdbc.update(sql, condId, materialId);
-            }
+        for (int i = 0; i < defaultConditions.size(); i += 500) {
+            jdbc.batchUpdate(sql, defaultConditions.subList(i, Math.min(i + 500, defaultConditions.size())));
         }
     }
 
-    private void seedConditionProperties(String path) throws Exception {
-        Resource csv = resourceLoader.getResource(path);
-
-        String sql = """
-                INSERT INTO condition_properties(
-                  condition_id, prop_key, prop_name, value_num, value_text,
-                  unit, basis, method, standard, notes,
-                  temperature_c, strain_rate, frequency_hz, environment, uncertainty, confidence
-                )
-                VALUES (?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?)
-                """;
-
-        try (var reader = new InputStreamReader(csv.getInputStream(), StandardCharsets.UTF_8)) {
-            Iterable<CSVRecord> records = CSVFormat.DEFAULT.builder()
-                    .setHeader()
-                    .setSkipHeaderRecord(true)
-                    .setTrim(true)
-                    .build()
-                    .parse(reader);
-
-            List<Object[]> batch = new ArrayList<>(1000);
-
-            for (CSVRecord r : records) {
-                batch.add(new Object[]{
-                        Long.parseLong(r.get("condition_id")),
-                        emptyToNull(r.get("prop_key")),
-                        emptyToNull(r.get("prop_name")),
-                        parseDoubleOrNull(r.get("value_num")),
-                        emptyToNull(r.get("value_text")),
-                        emptyToNull(r.get("unit")),
-                        emptyToNull(r.get("basis")),
-                        emptyToNull(r.get("method")),
-                        emptyToNull(r.get("standard")),
-                        emptyToNull(r.get("notes")),
-                        parseDoubleOrNull(r.get("temperature_c")),
-                        parseDoubleOrNull(r.get("strain_rate")),
-                        parseDoubleOrNull(r.get("frequency_hz")),
-                        emptyToNull(r.get("environment")),
-                        parseDoubleOrNull(r.get("uncertainty")),
-                        emptyToNull(r.get("confidence"))
-                });
-
-                if (batch.size() >= 1000) {
-                    jdbc.batchUpdate(sql, batch);
-                    batch.clear();
-                }
-            }
-
-            if (!batch.isEmpty()) jdbc.batchUpdate(sql, batch);
+    /**
+     * Drops every explicitly created index on the seeded tables and returns the statements
+     * that recreate them; primary key and unique autoindexes are kept.
+     */
+    private List<String> dropSecondaryIndexes() {
+        List<String> tables = new ArrayList<>();
+        for (SeedTable t : SeedTable.values()) tables.add("'" + t.table() + "'");
+        List<String[]> indexes = jdbc.query(
+                "SELECT name, sql FROM sqlite_master WHERE type = 'index' AND sql IS NOT NULL"
+                        + " AND tbl_name IN (" + String.join(",", tables) + ")",
+                (rs, rowNum) -> new String[]{rs.getString(1), rs.getString(2)});
+        List<String> create = new ArrayList<>(indexes.size());
+        for (String[] idx : indexes) {
+            jdbc.execute("DROP INDEX \"" + idx[0] + "\"");
+            create.add(idx[1]);
         }
+        return create;
     }
 
-    private void seedCurves(String path) throws Exception {
-        Resource csv = resourceLoader.getResource(path);
-
-        String sql = """
-                INSERT INTO curves(
-                  id, condition_id, curve_type, x_label, y_label,
-                  x_unit, y_unit, test_temperature_c, strain_rate, frequency_hz,
-                  environment, standard, notes, created_at, updated_at
-                )
-                VALUES (?,?,?,?,?,?,?,?,?,?,?,?,?,?,?)
-                """;
-
-        try (var reader = new InputStreamReader(csv.getInputStream(), StandardCharsets.UTF_8)) {
-            Iterable<CSVRecord> records = CSVFormat.DEFAULT.builder()
-                    .setHeader()
-                    .setSkipHeaderRecord(true)
-                    .setTrim(true)
-                    .build()
-                    .parse(reader);
-
-            List<Object[]> batch = new ArrayList<>(500);
-
-            for (CSVRecord r : records) {
-                batch.add(new Object[]{
-                        Long.parseLong(r.get("id")),
-                        Long.parseLong(r.get("condition_id")),
-                        emptyToNull(r.get("curve_type")),
-                        emptyToNull(r.get("x_label")),
-                        emptyToNull(r.get("y_label")),
-                        emptyToNull(r.get("x_unit")),
-                        emptyToNull(r.get("y_unit")),
-                        parseDoubleOrNull(r.get("test_temperature_c")),
-                        parseDoubleOrNull(r.get("strain_rate")),
-                        parseDoubleOrNull(r.get("frequency_hz")),
-                        emptyToNull(r.get("environment")),
-                        emptyToNull(r.get("standard")),
-                        emptyToNull(r.get("notes")),
-                        emptyToNull(r.get("created_at")),
-                        emptyToNull(r.get("updated_at"))
-                });
-
-                if (batch.size() >= 500) {
-                    jdbc.batchUpdate(sql, batch);
-                    batch.clear();
-                }
-            }
-
-            if (!batch.isEmpty()) jdbc.batchUpdate(sql, batch);
+    /** Cheap change check: size and modification time, no content read. */
+    private static String fingerprint(Resource r) {
+        try {
+            return r.contentLength() + ":" + r.lastModified();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot stat " + r.getDescription(), e);
         }
     }
 
-    private void seedCurvePoints(String path) throws Exception {
-        Resource csv = resourceLoader.getResource(path);
-
-        String sql = """
-                INSERT INTO curve_points(curve_id, idx, x, y, z)
-                VALUES (?,?,?,?,?)
-                """;
-
-        try (var reader = new InputStreamReader(csv.getInputStream(), StandardCharsets.UTF_8)) {
-            Iterable<CSVRecord> records = CSVFormat.DEFAULT.builder()
-                    .setHeader()
-                    .setSkipHeaderRecord(true)
-                    .setTrim(true)
-                    .build()
-                    .parse(reader);
-
-            List<Object[]> batch = new ArrayList<>(2000);
-
-            for (CSVRecord r : records) {
-                batch.add(new Object[]{
-                        Long.parseLong(r.get("curve_id")),
-                        Integer.parseInt(r.get("idx")),
-                        Double.parseDouble(r.get("x")),
-                        Double.parseDouble(r.get("y")),
-                        parseDoubleOrNull(r.get("z"))
-                });
-
-                if (batch.size() >= 2000) {
-                    jdbc.batchUpdate(sql, batch);
-                    batch.clear();
-                }
-            }
-
-            if (!batch.isEmpty()) jdbc.batchUpdate(sql, batch);
+    private static String contentHash(Resource r) {
+        try {
+            return Hashing.sha256(r.getInputStream());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read " + r.getDescription(), e);
         }
     }
 
-    private static String emptyToNull(String s) {
-        if (s == null) return null;
-        s = s.trim();
-        return s.isEmpty() ? null : s;
+    private static String fingerprintKey(SeedTable t) {
+        return "file:" + t.fileName() + ":fingerprint";
     }
 
-    private static Double parseDoubleOrNull(String s) {
-        s = emptyToNull(s);
-        if (s == null) return null;
-        try {
-            return Double.parseDouble(s);
-        } catch (NumberFormatException e) {
-            return null;
-        }
+    private static String hashKey(SeedTable t) {
+        return "file:" + t.fileName() + ":sha256";
     }
 
-    private static Long parseLongOrNull(String s) {
-        s = emptyToNull(s);
-        if (s == null) return null;
-        try {
-            return Long.parseLong(s);
-        } catch (NumberFormatException e) {
-            return null;
-        }
+    private static ThreadFactory parserThreads() {
+        AtomicInteger n = new AtomicInteger();
+        return r -> {
+            Thread t = new Thread(r, "seed-parser-" + n.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+    }
+
+    /** Bounded hand-off of insert batches from a parser to the writer. */
+    private static final class Pipe {
+        final BlockingQueue<List<Object[]>> queue = new ArrayBlockingQueue<>(QUEUE_BATCHES);
+        /** Row hash per key, filled by the parser and read by the writer after {@link #END}. */
+        final Map<Long, Long> hashes = new HashMap<>();
+        volatile Exception error;
     }
 
-    private static int parseBooleanToInt(String s) {
-        s = emptyToNull(s);
-        if (s == null) return 0;
-        return Boolean.parseBoolean(s) ? 1 : 0;
+    private record TableStats(String table, long rows, long nanos) {
+        long rowsPerSecond() {
+            return nanos == 0 ? rows : rows * 1_000_000_000L / nanos;
+        }
     }
 }
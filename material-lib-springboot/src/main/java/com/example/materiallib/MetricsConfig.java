@@ -0,0 +1,88 @@
+package com.example.materiallib;
+
+import com.example.materiallib.metrics.InstrumentedDataSource;
+import com.example.materiallib.metrics.QueryMetrics;
+import com.example.materiallib.metrics.RepositoryMetricsInterceptor;
+import com.example.materiallib.metrics.RequestQueryFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.StaticMethodMatcherPointcut;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.time.Duration;
+
+/**
+ * Query and repository instrumentation, exported with the other Micrometer meters through
+ * {@code /actuator/prometheus}.
+ * <p>
+ * Every {@link DataSource} bean is wrapped in an {@link InstrumentedDataSource}, so all
+ * statements (repositories, seeding, imports) are timed and counted; public methods of
+ * {@code @Repository} classes are timed; and each HTTP request reports its statement and
+ * row counts. The cost is a few proxy calls and clock reads per statement and per row.
+ */
+@Configuration(proxyBeanMethods = false)
+public class MetricsConfig {
+
+    @Bean
+    public QueryMetrics queryMetrics(MeterRegistry registry,
+                                     @Value("${materiallib.metrics.slow-query:200ms}") Duration slowQuery,
+                                     @Value("${materiallib.metrics.max-queries-per-request:25}") int maxQueriesPerRequest) {
+        return new QueryMetrics(registry, slowQuery, maxQueriesPerRequest);
+    }
+
+    @Bean
+    public static BeanPostProcessor instrumentedDataSources(ObjectProvider<QueryMetrics> metrics) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource ds && !(bean instanceof InstrumentedDataSource)) {
+                    return new InstrumentedDataSource(ds, metrics.getObject());
+                }
+                return bean;
+            }
+        };
+    }
+
+    /** Picked up by the infrastructure auto-proxy creator that also applies the cache advice. */
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public static Advisor repositoryMetricsAdvisor(ObjectProvider<MeterRegistry> registry) {
+        StaticMethodMatcherPointcut publicRepositoryMethods = new StaticMethodMatcherPointcut() {
+            @Override
+            public boolean matches(Method method, Class<?> targetClass) {
+                return Modifier.isPublic(method.getModifiers())
+                        && method.getDeclaringClass() != Object.class
+                        && AnnotatedElementUtils.hasAnnotation(targetClass, Repository.class);
+            }
+        };
+        DefaultPointcutAdvisor advisor = new DefaultPointcutAdvisor(publicRepositoryMethods,
+                new RepositoryMetricsInterceptor(registry));
+        advisor.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return advisor;
+    }
+
+    /** Applied by Spring Boot to the executor that writes streamed response bodies. */
+    @Bean
+    public TaskDecorator queryMetricsTaskDecorator(QueryMetrics metrics) {
+        return metrics::propagate;
+    }
+
+    @Bean
+    public RequestQueryFilter requestQueryFilter(QueryMetrics metrics, MeterRegistry registry) {
+        return new RequestQueryFilter(metrics, registry);
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.materiallib;
+
+import com.example.materiallib.web.ResponseFormats;
+import com.example.materiallib.web.SmallResponseFilter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * Message converters for the binary formats of {@link ResponseFormats}, so that handlers
+ * returning objects answer {@code Accept: application/cbor} or
+ * {@code application/x-jackson-smile} with the same fields as JSON. They replace the
+ * converters Spring MVC would otherwise build with Jackson's plain defaults.
+ * Response compression is configured under {@code server.compression}; a
+ * {@link SmallResponseFilter} gives small bodies a length so that its
+ * {@code min-response-size} applies to them.
+ */
+@Configuration(proxyBeanMethods = false)
+public class ResponseFormatConfig {
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(ResponseFormats formats) {
+        return new MappingJackson2CborHttpMessageConverter(formats.cbor());
+    }
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(ResponseFormats formats) {
+        return new MappingJackson2SmileHttpMessageConverter(formats.smile());
+    }
+
+    @Bean
+    @ConditionalOnProperty("server.compression.enabled")
+    public SmallResponseFilter smallResponseFilter(ServerProperties server) {
+        return new SmallResponseFilter((int) server.getCompression().getMinResponseSize().toBytes());
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.materiallib;
+
+import com.example.materiallib.seed.DatasetMeta;
+import com.example.materiallib.seed.Hashing;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.jdbc.init.DataSourceScriptDatabaseInitializer;
+import org.springframework.boot.sql.init.DatabaseInitializationMode;
+import org.springframework.boot.sql.init.DatabaseInitializationSettings;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+/**
+ * Runs schema.sql only when its content differs from the version recorded in
+ * {@code dataset_meta}, instead of re-executing every statement on each start.
+ * <p>
+ * Being a {@link DataSourceScriptDatabaseInitializer}, it replaces Spring Boot's
+ * {@code spring.sql.init} initializer and JDBC beans are still ordered after it.
+ */
+public class SchemaInitializer extends DataSourceScriptDatabaseInitializer {
+
+    private static final Logger log = LoggerFactory.getLogger(SchemaInitializer.class);
+
+    private final String location;
+    private ResourceLoader resourceLoader;
+
+    public SchemaInitializer(DataSource dataSource, String location) {
+        super(dataSource, settings(location));
+        this.location = location;
+    }
+
+    @Override
+    public void setResourceLoader(ResourceLoader resourceLoader) {
+        super.setResourceLoader(resourceLoader);
+        this.resourceLoader = resourceLoader;
+    }
+
+    @Override
+    public boolean initializeDatabase() {
+        JdbcTemplate jdbc = new JdbcTemplate(getDataSource());
+        String version;
+        try {
+            version = Hashing.sha256(resourceLoader.getResource(location).getInputStream());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read " + location, e);
+        }
+
+        jdbc.execute(DatasetMeta.CREATE_META_TABLE);
+        List<String> stored = jdbc.query("SELECT value FROM dataset_meta WHERE key = ?",
+                (rs, rowNum) -> rs.getString(1), DatasetMeta.SCHEMA_VERSION);
+        if (!stored.isEmpty() && version.equals(stored.get(0))) {
+            log.debug("Schema unchanged ({}), skipping {}", version, location);
+            return false;
+        }
+
+        boolean ran = super.initializeDatabase();
+        jdbc.update("INSERT INTO dataset_meta(key, value) VALUES (?, ?) ON CONFLICT(key) DO UPDATE SET value = excluded.value",
+                DatasetMeta.SCHEMA_VERSION, version);
+        log.info("Applied {} (schema version {})", location, version.substring(0, 12));
+        return ran;
+    }
+
+    private static DatabaseInitializationSettings settings(String location) {
+        DatabaseInitializationSettings settings = new DatabaseInitializationSettings();
+        settings.setSchemaLocations(List.of(location));
+        settings.setMode(DatabaseInitializationMode.ALWAYS);
+        return settings;
+    }
+}
@@ -0,0 +1,6 @@
+package com.example.materiallib.curve;
+
+public record CurveEvalRequest(
+        double[] x,
+        String mode
+) {}
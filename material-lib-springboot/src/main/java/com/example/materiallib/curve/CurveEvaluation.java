@@ -0,0 +1,12 @@
+package com.example.materiallib.curve;
+
+public record CurveEvaluation(
+        long curveId,
+        String mode,
+        String xUnit,
+        String yUnit,
+        double xMin,
+        double xMax,
+        double[] x,
+        double[] y
+) {}
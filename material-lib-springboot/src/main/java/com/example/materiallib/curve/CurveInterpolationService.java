@@ -0,0 +1,44 @@
+package com.example.materiallib.curve;
+
+import com.example.materiallib.DatasetChangedEvent;
+import com.example.materiallib.repo.CurvePointRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Evaluates curves at arbitrary x using interpolants built once per (curve, mode)
+ * from the packed points and kept in a bounded cache.
+ */
+@Component
+public class CurveInterpolationService {
+
+    private static final int MAX_CACHED_INTERPOLANTS = 10_000;
+
+    private final CurvePointRepository curvePoints;
+    private final Cache<Key, Interpolant> cache = Caffeine.newBuilder()
+            .maximumSize(MAX_CACHED_INTERPOLANTS)
+            .build();
+
+    public CurveInterpolationService(CurvePointRepository curvePoints) {
+        this.curvePoints = curvePoints;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the curve has no points or its values do not suit the mode
+     */
+    public Interpolant interpolant(long curveId, InterpolationMode mode) {
+        return cache.get(new Key(curveId, mode), k -> {
+            PackedPoints p = curvePoints.packedForCurve(curveId).decode();
+            return Interpolant.of(mode, p.x(), p.y());
+        });
+    }
+
+    @EventListener
+    public void onDatasetChanged(DatasetChangedEvent event) {
+        if (event.touches("curve_points")) cache.invalidateAll();
+    }
+
+    private record Key(long curveId, InterpolationMode mode) {}
+}
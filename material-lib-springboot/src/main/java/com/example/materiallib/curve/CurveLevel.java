@@ -0,0 +1,25 @@
+package com.example.materiallib.curve;
+
+import com.example.materiallib.model.CurvePoint;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One level of a curve's resolution pyramid: the kept points and their stored
+ * {@code curve_points.idx}, as the full-resolution and batched endpoints return them.
+ */
+public record CurveLevel(int[] idx, PackedPoints points) {
+
+    public List<CurvePoint> toPoints() {
+        double[] x = points.x();
+        double[] y = points.y();
+        double[] z = points.z();
+        List<CurvePoint> out = new ArrayList<>(idx.length);
+        for (int i = 0; i < idx.length; i++) {
+            Double zi = z == null || Double.isNaN(z[i]) ? null : z[i];
+            out.add(new CurvePoint(points.curveId(), idx[i], x[i], y[i], zi));
+        }
+        return out;
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.materiallib.curve;
+
+import java.util.List;
+
+/**
+ * Curves to read in one batch: {@code ids} with the request-wide settings, and/or
+ * {@code curves} carrying their own, which take precedence over the request-wide ones.
+ */
+public record CurvePointsBatchRequest(
+        long[] ids,
+        List<CurveSlice> curves,
+        Integer maxPoints,
+        Double xMin,
+        Double xMax
+) {}
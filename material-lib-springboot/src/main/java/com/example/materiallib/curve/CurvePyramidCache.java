@@ -0,0 +1,75 @@
+package com.example.materiallib.curve;
+
+import com.example.materiallib.DatasetChangedEvent;
+import com.example.materiallib.repo.CurvePointRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Lazily built, cached resolution pyramid per curve.
+ * <p>
+ * Levels have power-of-two point counts (16, 32, 64, ...) and are each reduced with
+ * {@link Lttb} from the full-resolution curve, not from the level above, so quality does
+ * not degrade down the pyramid. A request for {@code maxPoints} is served by the largest
+ * level that fits, so dashboards asking for similar sizes share cached levels. Below
+ * {@value #MIN_LEVEL} points the level has exactly {@code maxPoints} points.
+ */
+@Component
+public class CurvePyramidCache {
+
+    private static final int MIN_LEVEL = 16;
+    /** Upper bound on cached points across all levels (about 24 bytes per point). */
+    private static final long MAX_CACHED_POINTS = 4_000_000;
+
+    private final CurvePointRepository curvePoints;
+    private final Cache<Key, CurveLevel> levels = Caffeine.newBuilder()
+            .maximumWeight(MAX_CACHED_POINTS)
+            .weigher((Key k, CurveLevel v) -> v.idx().length)
+            .build();
+
+    public CurvePyramidCache(CurvePointRepository curvePoints) {
+        this.curvePoints = curvePoints;
+    }
+
+    /**
+     * Pyramid level with at most {@code maxPoints} points: the largest power-of-two level
+     * that fits, or the whole curve when it is no larger than that level.
+     *
+     * @throws IllegalArgumentException if {@code maxPoints} is below 3
+     */
+    public CurveLevel level(long curveId, int maxPoints) {
+        if (maxPoints < 3) throw new IllegalArgumentException("maxPoints must be at least 3");
+        int size = levelSize(maxPoints);
+        return levels.get(new Key(curveId, size), k ->
+                reduce(curvePoints.packedForCurve(curveId).decode(), curvePoints.idxForCurve(curveId), size));
+    }
+
+    static int levelSize(int maxPoints) {
+        return maxPoints < MIN_LEVEL ? maxPoints : Integer.highestOneBit(maxPoints);
+    }
+
+    /** {@code storedIdx} maps each position of {@code full} to its {@code curve_points.idx}. */
+    private static CurveLevel reduce(PackedPoints full, int[] storedIdx, int size) {
+        int[] keep = Lttb.select(full.x(), full.y(), size);
+        int[] idx = new int[keep.length];
+        double[] x = new double[keep.length];
+        double[] y = new double[keep.length];
+        double[] z = full.hasZ() ? new double[keep.length] : null;
+        for (int i = 0; i < keep.length; i++) {
+            idx[i] = storedIdx[keep[i]];
+            x[i] = full.x()[keep[i]];
+            y[i] = full.y()[keep[i]];
+            if (z != null) z[i] = full.z()[keep[i]];
+        }
+        return new CurveLevel(idx, new PackedPoints(full.curveId(), x, y, z));
+    }
+
+    @EventListener
+    public void onDatasetChanged(DatasetChangedEvent event) {
+        if (event.touches("curve_points")) levels.invalidateAll();
+    }
+
+    private record Key(long curveId, int size) {}
+}
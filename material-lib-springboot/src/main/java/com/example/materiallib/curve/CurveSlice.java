@@ -0,0 +1,35 @@
+package com.example.materiallib.curve;
+
+/**
+ * The part of one curve to return: points with {@code xMin <= x <= xMax} (either bound
+ * optional), reduced with {@link Lttb} to at most {@code maxPoints} when that is set.
+ */
+public record CurveSlice(
+        long id,
+        Integer maxPoints,
+        Double xMin,
+        Double xMax
+) {
+
+    /** Checks the bounds; throws IllegalArgumentException naming the curve. */
+    public CurveSlice {
+        if (maxPoints != null && maxPoints < 3) {
+            throw new IllegalArgumentException("maxPoints must be at least 3 (curve " + id + ")");
+        }
+        if (xMin != null && xMax != null && xMin > xMax) {
+            throw new IllegalArgumentException("xMin must not exceed xMax (curve " + id + ")");
+        }
+    }
+
+    /** This curve's settings, with the request-wide ones filling those it leaves unset. */
+    public CurveSlice orDefaults(Integer maxPoints, Double xMin, Double xMax) {
+        return new CurveSlice(id,
+                this.maxPoints != null ? this.maxPoints : maxPoints,
+                this.xMin != null ? this.xMin : xMin,
+                this.xMax != null ? this.xMax : xMax);
+    }
+
+    public boolean contains(double x) {
+        return (xMin == null || x >= xMin) && (xMax == null || x <= xMax);
+    }
+}
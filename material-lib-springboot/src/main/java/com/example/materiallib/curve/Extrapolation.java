@@ -0,0 +1,21 @@
+package com.example.materiallib.curve;
+
+import java.util.Locale;
+
+/** What an {@link Interpolant} returns for x outside the tabulated range. */
+public enum Extrapolation {
+    /** The value at the nearest end point. */
+    CLAMP,
+    /** Continues the end segment's slope (in log space for {@link InterpolationMode#LOG_LOG}). */
+    LINEAR,
+    /** No value (NaN). */
+    NONE;
+
+    public static Extrapolation parse(String s) {
+        try {
+            return valueOf(s.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown extrapolation: " + s);
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package com.example.materiallib.curve;
+
+import java.util.Arrays;
+
+/**
+ * Precomputed interpolant over one curve, held as primitive arrays.
+ * <p>
+ * Knots are sorted by x with duplicate x values averaged. For {@link InterpolationMode#LOG_LOG}
+ * the knots are stored in log space. Evaluation clamps x to [{@link #xMin()}, {@link #xMax()}]
+ * unless another {@link Extrapolation} is asked for, and does one binary search per value
+ * without allocating.
+ */
+public final class Interpolant {
+
+    private final InterpolationMode mode;
+    private final double[] xs;
+    private final double[] ys;
+    /** Knot tangents, only for {@link InterpolationMode#MONOTONE_CUBIC}. */
+    private final double[] m;
+    private final double xMin;
+    private final double xMax;
+
+    private Interpolant(InterpolationMode mode, double[] xs, double[] ys, double[] m, double xMin, double xMax) {
+        this.mode = mode;
+        this.xs = xs;
+        this.ys = ys;
+        this.m = m;
+        this.xMin = xMin;
+        this.xMax = xMax;
+    }
+
+    public static Interpolant of(InterpolationMode mode, double[] x, double[] y) {
+        if (x.length == 0) throw new IllegalArgumentException("Curve has no points");
+        double[][] knots = sortedKnots(x, y);
+        double[] xs = knots[0];
+        double[] ys = knots[1];
+        double xMin = xs[0];
+        double xMax = xs[xs.length - 1];
+        if (mode == InterpolationMode.LOG_LOG) {
+            for (int i = 0; i < xs.length; i++) {
+                if (!(xs[i] > 0) || !(ys[i] > 0)) {
+                    throw new IllegalArgumentException("log-log interpolation needs positive x and y");
+                }
+                xs[i] = Math.log(xs[i]);
+                ys[i] = Math.log(ys[i]);
+            }
+        }
+        double[] m = mode == InterpolationMode.MONOTONE_CUBIC ? monotoneTangents(xs, ys) : null;
+        return new Interpolant(mode, xs, ys, m, xMin, xMax);
+    }
+
+    public InterpolationMode mode() {
+        return mode;
+    }
+
+    public double xMin() {
+        return xMin;
+    }
+
+    public double xMax() {
+        return xMax;
+    }
+
+    public void evaluate(double[] in, double[] out) {
+        for (int i = 0; i < in.length; i++) out[i] = evaluate(in[i]);
+    }
+
+    public void evaluate(double[] in, double[] out, Extrapolation extrapolation) {
+        for (int i = 0; i < in.length; i++) out[i] = evaluate(in[i], extrapolation);
+    }
+
+    public double evaluate(double x, Extrapolation extrapolation) {
+        if (extrapolation == Extrapolation.CLAMP || (x >= xMin && x <= xMax)) return evaluate(x);
+        if (extrapolation == Extrapolation.NONE || Double.isNaN(x)) return Double.NaN;
+        int n = xs.length;
+        if (n == 1) return evaluate(x);
+        boolean log = mode == InterpolationMode.LOG_LOG;
+        double t = log ? Math.log(x) : x;
+        int end = x < xMin ? 0 : n - 1;
+        double slope = m != null ? m[end]
+                : end == 0 ? (ys[1] - ys[0]) / (xs[1] - xs[0])
+                : (ys[n - 1] - ys[n - 2]) / (xs[n - 1] - xs[n - 2]);
+        double y = ys[end] + slope * (t - xs[end]);
+        return log ? Math.exp(y) : y;
+    }
+
+    /**
+     * Throws IllegalArgumentException for a value of {@code in} outside this interpolant's
+     * domain: NaN or infinite, or not positive for {@link InterpolationMode#LOG_LOG}.
+     */
+    public void checkDomain(String name, double[] in) {
+        boolean log = mode == InterpolationMode.LOG_LOG;
+        for (double v : in) {
+            if (!Double.isFinite(v)) throw new IllegalArgumentException(name + " must be a finite number: " + v);
+            if (log && !(v > 0)) throw new IllegalArgumentException("log-log interpolation needs " + name + " > 0: " + v);
+        }
+    }
+
+    /** Clamped value at {@code x}; NaN where x is NaN or, in log-log mode, negative. */
+    public double evaluate(double x) {
+        boolean log = mode == InterpolationMode.LOG_LOG;
+        double t = log ? Math.log(x) : x;
+        // NaN passes both end checks below and would send the search past the last knot
+        if (Double.isNaN(t)) return Double.NaN;
+        int n = xs.length;
+        double y;
+        if (n == 1 || t <= xs[0]) {
+            y = ys[0];
+        } else if (t >= xs[n - 1]) {
+            y = ys[n - 1];
+        } else {
+            int k = Arrays.binarySearch(xs, t);
+            if (k >= 0) {
+                y = ys[k];
+            } else {
+                int i = -k - 2;
+                double h = xs[i + 1] - xs[i];
+                double s = (t - xs[i]) / h;
+                if (m == null) {
+                    y = ys[i] + s * (ys[i + 1] - ys[i]);
+                } else {
+                    double s2 = s * s;
+                    double s3 = s2 * s;
+                    y = (2 * s3 - 3 * s2 + 1) * ys[i]
+                            + (s3 - 2 * s2 + s) * h * m[i]
+                            + (-2 * s3 + 3 * s2) * ys[i + 1]
+                            + (s3 - s2) * h * m[i + 1];
+                }
+            }
+        }
+        return log ? Math.exp(y) : y;
+    }
+
+    private static double[][] sortedKnots(double[] x, double[] y) {
+        int n = x.length;
+        Integer[] order = new Integer[n];
+        boolean sorted = true;
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+            if (i > 0 && x[i] < x[i - 1]) sorted = false;
+        }
+        if (!sorted) Arrays.sort(order, (a, b) -> Double.compare(x[a], x[b]));
+
+        double[] xs = new double[n];
+        double[] ys = new double[n];
+        int k = 0;
+        for (int i = 0; i < n; ) {
+            double xi = x[order[i]];
+            double sum = 0;
+            int j = i;
+            while (j < n && x[order[j]] == xi) sum += y[order[j++]];
+            xs[k] = xi;
+            ys[k] = sum / (j - i);
+            k++;
+            i = j;
+        }
+        return new double[][]{Arrays.copyOf(xs, k), Arrays.copyOf(ys, k)};
+    }
+
+    /** Fritsch-Carlson tangents: secant averages, limited so each segment stays monotone. */
+    private static double[] monotoneTangents(double[] x, double[] y) {
+        int n = x.length;
+        double[] m = new double[n];
+        if (n < 2) return m;
+        double[] d = new double[n - 1];
+        for (int i = 0; i < n - 1; i++) d[i] = (y[i + 1] - y[i]) / (x[i + 1] - x[i]);
+        m[0] = d[0];
+        m[n - 1] = d[n - 2];
+        for (int i = 1; i < n - 1; i++) {
+            m[i] = d[i - 1] * d[i] <= 0 ? 0 : (d[i - 1] + d[i]) / 2;
+        }
+        for (int i = 0; i < n - 1; i++) {
+            if (d[i] == 0) {
+                m[i] = 0;
+                m[i + 1] = 0;
+                continue;
+            }
+            double a = m[i] / d[i];
+            double b = m[i + 1] / d[i];
+            double r = a * a + b * b;
+            if (r > 9) {
+                double tau = 3 / Math.sqrt(r);
+                m[i] = tau * a * d[i];
+                m[i + 1] = tau * b * d[i];
+            }
+        }
+        return m;
+    }
+}
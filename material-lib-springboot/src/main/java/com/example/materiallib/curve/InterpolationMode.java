@@ -0,0 +1,20 @@
+package com.example.materiallib.curve;
+
+import java.util.Locale;
+
+public enum InterpolationMode {
+    /** Piecewise linear in (x, y). */
+    LINEAR,
+    /** Fritsch-Carlson monotone cubic Hermite; never overshoots between points. */
+    MONOTONE_CUBIC,
+    /** Piecewise linear in (log x, log y), i.e. power law between points. Needs x, y &gt; 0. */
+    LOG_LOG;
+
+    public static InterpolationMode parse(String s) {
+        try {
+            return valueOf(s.trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown interpolation mode: " + s);
+        }
+    }
+}
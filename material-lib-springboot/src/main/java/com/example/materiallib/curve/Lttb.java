@@ -0,0 +1,63 @@
+package com.example.materiallib.curve;
+
+/**
+ * Largest-Triangle-Three-Buckets downsampling (Steinarsson, 2013).
+ * <p>
+ * Keeps the first and last point and, for every bucket in between, the point forming
+ * the largest triangle with the previously kept point and the average of the next bucket.
+ * This keeps peaks, knees and other visually significant features that uniform
+ * striding would drop.
+ */
+public final class Lttb {
+
+    private Lttb() {}
+
+    /**
+     * Indices of the points to keep, ascending; all indices when {@code threshold >= n}.
+     *
+     * @param threshold number of points to keep, at least 3
+     */
+    public static int[] select(double[] x, double[] y, int threshold) {
+        int n = x.length;
+        if (threshold < 3) throw new IllegalArgumentException("threshold must be at least 3");
+        if (threshold >= n) {
+            int[] all = new int[n];
+            for (int i = 0; i < n; i++) all[i] = i;
+            return all;
+        }
+
+        int[] out = new int[threshold];
+        double every = (double) (n - 2) / (threshold - 2);
+        int a = 0;
+        out[0] = 0;
+        for (int i = 0; i < threshold - 2; i++) {
+            int nextStart = (int) ((i + 1) * every) + 1;
+            int nextEnd = Math.min((int) ((i + 2) * every) + 1, n);
+            double avgX = 0;
+            double avgY = 0;
+            for (int j = nextStart; j < nextEnd; j++) {
+                avgX += x[j];
+                avgY += y[j];
+            }
+            int len = nextEnd - nextStart;
+            avgX /= len;
+            avgY /= len;
+
+            int start = (int) (i * every) + 1;
+            int end = (int) ((i + 1) * every) + 1;
+            double maxArea = -1;
+            int best = start;
+            for (int j = start; j < end; j++) {
+                double area = Math.abs((x[a] - avgX) * (y[j] - y[a]) - (x[a] - x[j]) * (avgY - y[a]));
+                if (area > maxArea) {
+                    maxArea = area;
+                    best = j;
+                }
+            }
+            out[i + 1] = best;
+            a = best;
+        }
+        out[threshold - 1] = n - 1;
+        return out;
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.materiallib.curve;
+
+/**
+ * Stored packed form of a curve's points, see {@link PackedPoints} for the byte layout.
+ */
+public record PackedBlob(long curveId, int count, boolean hasZ, byte[] data) {
+
+    public PackedPoints decode() {
+        return PackedPoints.fromBytes(curveId, count, hasZ, data);
+    }
+}
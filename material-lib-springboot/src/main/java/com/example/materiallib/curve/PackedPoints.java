@@ -0,0 +1,129 @@
+package com.example.materiallib.curve;
+
+import com.example.materiallib.model.CurvePoint;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Points of one curve as primitive arrays, ordered by idx.
+ * <p>
+ * The packed byte form, stored in {@code curve_point_blobs.data} and served as
+ * {@code application/octet-stream}, is little-endian float64: {@code x[0..n)}, then
+ * {@code y[0..n)}, then {@code z[0..n)} only when the curve has z values (NaN for a
+ * missing z). The point count and z flag travel alongside the bytes, not inside them.
+ */
+public final class PackedPoints {
+
+    private final long curveId;
+    private final double[] x;
+    private final double[] y;
+    private final double[] z;
+
+    public PackedPoints(long curveId, double[] x, double[] y, double[] z) {
+        this.curveId = curveId;
+        this.x = x;
+        this.y = y;
+        this.z = z;
+    }
+
+    public long curveId() {
+        return curveId;
+    }
+
+    public int size() {
+        return x.length;
+    }
+
+    public boolean hasZ() {
+        return z != null;
+    }
+
+    /** Backing arrays; callers must not modify them. */
+    public double[] x() {
+        return x;
+    }
+
+    public double[] y() {
+        return y;
+    }
+
+    public double[] z() {
+        return z;
+    }
+
+    public byte[] toBytes() {
+        int n = x.length;
+        ByteBuffer buf = ByteBuffer.allocate(n * 8 * (z == null ? 2 : 3)).order(ByteOrder.LITTLE_ENDIAN);
+        buf.asDoubleBuffer().put(x).put(y).put(z == null ? new double[0] : z);
+        return buf.array();
+    }
+
+    public static PackedPoints fromBytes(long curveId, int n, boolean hasZ, byte[] data) {
+        var doubles = ByteBuffer.wrap(data).order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer();
+        double[] x = new double[n];
+        double[] y = new double[n];
+        doubles.get(x).get(y);
+        double[] z = null;
+        if (hasZ) {
+            z = new double[n];
+            doubles.get(z);
+        }
+        return new PackedPoints(curveId, x, y, z);
+    }
+
+    public List<CurvePoint> toPoints() {
+        List<CurvePoint> out = new ArrayList<>(x.length);
+        for (int i = 0; i < x.length; i++) {
+            Double zi = z == null || Double.isNaN(z[i]) ? null : z[i];
+            out.add(new CurvePoint(curveId, i, x[i], y[i], zi));
+        }
+        return out;
+    }
+
+    /** Accumulates the points of one curve in idx order. */
+    public static final class Builder {
+        private final long curveId;
+        private double[] x = new double[64];
+        private double[] y = new double[64];
+        private double[] z = new double[64];
+        private boolean hasZ;
+        private int n;
+
+        public Builder(long curveId) {
+            this.curveId = curveId;
+        }
+
+        public long curveId() {
+            return curveId;
+        }
+
+        public int size() {
+            return n;
+        }
+
+        public Builder add(double px, double py, Double pz) {
+            if (n == x.length) {
+                x = Arrays.copyOf(x, n * 2);
+                y = Arrays.copyOf(y, n * 2);
+                z = Arrays.copyOf(z, n * 2);
+            }
+            x[n] = px;
+            y[n] = py;
+            z[n] = pz == null ? Double.NaN : pz;
+            hasZ |= pz != null;
+            n++;
+            return this;
+        }
+
+        public PackedPoints build() {
+            return new PackedPoints(curveId,
+                    Arrays.copyOf(x, n),
+                    Arrays.copyOf(y, n),
+                    hasZ ? Arrays.copyOf(z, n) : null);
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.materiallib.curve;
+
+public record PropertyEvalRequest(
+        double[] temperatureC,
+        String mode,
+        String extrapolation
+) {}
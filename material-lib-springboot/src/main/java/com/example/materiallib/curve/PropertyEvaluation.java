@@ -0,0 +1,14 @@
+package com.example.materiallib.curve;
+
+public record PropertyEvaluation(
+        long conditionId,
+        String propKey,
+        String unit,
+        String mode,
+        String extrapolation,
+        boolean temperatureDependent,
+        Double temperatureMin,
+        Double temperatureMax,
+        double[] temperatureC,
+        Double[] value
+) {}
@@ -0,0 +1,94 @@
+package com.example.materiallib.curve;
+
+import com.example.materiallib.DatasetChangedEvent;
+import com.example.materiallib.model.ConditionProperty;
+import com.example.materiallib.repo.PropertyRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * Evaluates a condition's property at arbitrary temperatures from its tabulated
+ * {@code condition_properties} rows. Tables are built once per (condition, prop_key, mode)
+ * and kept in a bounded cache.
+ * <p>
+ * Rows without a temperature are ignored when the property has rows with one; rows at the
+ * same temperature (e.g. different strain rates) are averaged.
+ */
+@Component
+public class PropertyInterpolationService {
+
+    private static final int MAX_CACHED_TABLES = 20_000;
+
+    private final PropertyRepository properties;
+    private final Cache<Key, Optional<PropertyTable>> cache = Caffeine.newBuilder()
+            .maximumSize(MAX_CACHED_TABLES)
+            .build();
+
+    public PropertyInterpolationService(PropertyRepository properties) {
+        this.properties = properties;
+    }
+
+    /**
+     * @return empty if the condition has no numeric rows for {@code propKey}
+     * @throws IllegalArgumentException if the values do not suit the mode
+     */
+    public Optional<PropertyTable> table(long conditionId, String propKey, InterpolationMode mode) {
+        return cache.get(new Key(conditionId, propKey, mode), k -> build(conditionId, propKey, mode));
+    }
+
+    /**
+     * @throws IllegalArgumentException if a temperature is not finite, or not above 0 °C for a
+     *                                  log-log table
+     */
+    public PropertyEvaluation evaluate(PropertyTable table, double[] temperatures, Extrapolation extrapolation) {
+        Interpolant f = table.interpolant();
+        f.checkDomain("temperature (°C)", temperatures);
+        Double[] values = new Double[temperatures.length];
+        for (int i = 0; i < temperatures.length; i++) {
+            double v = table.temperatureDependent()
+                    ? f.evaluate(temperatures[i], extrapolation)
+                    : f.evaluate(temperatures[i]);
+            values[i] = Double.isNaN(v) ? null : v;
+        }
+        return new PropertyEvaluation(table.conditionId(), table.propKey(), table.unit(),
+                f.mode().name().toLowerCase(Locale.ROOT), extrapolation.name().toLowerCase(Locale.ROOT),
+                table.temperatureDependent(),
+                table.temperatureDependent() ? f.xMin() : null,
+                table.temperatureDependent() ? f.xMax() : null,
+                temperatures, values);
+    }
+
+    private Optional<PropertyTable> build(long conditionId, String propKey, InterpolationMode mode) {
+        List<ConditionProperty> rows = properties.numericByConditionAndKey(conditionId, propKey);
+        if (rows.isEmpty()) return Optional.empty();
+        List<ConditionProperty> withT = rows.stream().filter(r -> r.temperatureC() != null).toList();
+        boolean dependent = !withT.isEmpty();
+        List<ConditionProperty> used = dependent ? withT : rows;
+
+        double[] t = new double[used.size()];
+        double[] v = new double[used.size()];
+        String unit = null;
+        for (int i = 0; i < used.size(); i++) {
+            ConditionProperty r = used.get(i);
+            // temperature-independent rows collapse onto one knot and are averaged
+            t[i] = dependent ? r.temperatureC() : 1;
+            v[i] = r.valueNum();
+            if (unit == null) unit = r.unit();
+        }
+        Interpolant f = Interpolant.of(dependent ? mode : InterpolationMode.LINEAR, t, v);
+        return Optional.of(new PropertyTable(conditionId, propKey, unit, dependent, used.size(), f));
+    }
+
+    @EventListener
+    public void onDatasetChanged(DatasetChangedEvent event) {
+        if (event.touches("condition_properties")) cache.invalidateAll();
+    }
+
+    private record Key(long conditionId, String propKey, InterpolationMode mode) {}
+}
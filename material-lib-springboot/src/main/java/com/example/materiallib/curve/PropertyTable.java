@@ -0,0 +1,16 @@
+package com.example.materiallib.curve;
+
+/**
+ * Value of one property of one condition as a function of temperature (°C).
+ * <p>
+ * {@code temperatureDependent} is false when no row of the property has a temperature;
+ * the interpolant then holds a single constant that applies at every temperature.
+ */
+public record PropertyTable(
+        long conditionId,
+        String propKey,
+        String unit,
+        boolean temperatureDependent,
+        int points,
+        Interpolant interpolant
+) {}
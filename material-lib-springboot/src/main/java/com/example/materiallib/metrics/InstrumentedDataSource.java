@@ -0,0 +1,264 @@
+package com.example.materiallib.metrics;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+
+/**
+ * Data source whose connections report each statement to {@link QueryMetrics}: its SQL, bind
+ * parameters, the time spent executing it and fetching its rows, and the row count.
+ * <p>
+ * Connections, statements and result sets are wrapped in JDK proxies. The wrappers only add
+ * a {@code System.nanoTime()} pair around {@code execute*} and {@code ResultSet.next()}, and
+ * record a statement once, when its result set (or, for writes, the execution) completes.
+ * Being a {@link DelegatingDataSource}, the pool behind it is still found by pool metrics.
+ */
+public class InstrumentedDataSource extends DelegatingDataSource {
+
+    private static final ClassLoader LOADER = InstrumentedDataSource.class.getClassLoader();
+
+    private final QueryMetrics metrics;
+
+    public InstrumentedDataSource(DataSource target, QueryMetrics metrics) {
+        super(target);
+        this.metrics = metrics;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrap(obtainTargetDataSource().getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return wrap(obtainTargetDataSource().getConnection(username, password));
+    }
+
+    private Connection wrap(Connection con) {
+        return (Connection) Proxy.newProxyInstance(LOADER, new Class<?>[]{Connection.class}, new ConnectionHandler(con));
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private final class ConnectionHandler implements InvocationHandler {
+        private final Connection target;
+
+        ConnectionHandler(Connection target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "prepareStatement":
+                case "prepareCall":
+                case "createStatement":
+                    Statement stmt = (Statement) InstrumentedDataSource.invoke(target, method, args);
+                    String sql = method.getName().equals("createStatement") ? null : (String) args[0];
+                    Class<?> type = stmt instanceof CallableStatement ? CallableStatement.class
+                            : stmt instanceof PreparedStatement ? PreparedStatement.class : Statement.class;
+                    return Proxy.newProxyInstance(LOADER, new Class<?>[]{type},
+                            new StatementHandler(stmt, (Connection) proxy, sql));
+                default:
+                    return InstrumentedDataSource.invoke(target, method, args);
+            }
+        }
+    }
+
+    private final class StatementHandler implements InvocationHandler {
+        private final Statement target;
+        private final Connection connection;
+        private String sql;
+        private Object[] parameters;
+        private int maxIndex;
+        private int batchSize;
+        private Execution pending;
+
+        StatementHandler(Statement target, Connection connection, String sql) {
+            this.target = target;
+            this.connection = connection;
+            this.sql = sql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index) {
+                bind(index, name.equals("setNull") ? null : args[1]);
+                return InstrumentedDataSource.invoke(target, method, args);
+            }
+            switch (name) {
+                case "executeQuery": {
+                    String text = sqlOf(args);
+                    finishPending();
+                    long start = System.nanoTime();
+                    ResultSet rs = (ResultSet) InstrumentedDataSource.invoke(target, method, args);
+                    pending = new Execution(text, snapshot(), System.nanoTime() - start);
+                    return wrap(rs, (Statement) proxy);
+                }
+                case "execute": {
+                    String text = sqlOf(args);
+                    finishPending();
+                    long start = System.nanoTime();
+                    boolean hasResultSet = (Boolean) InstrumentedDataSource.invoke(target, method, args);
+                    long nanos = System.nanoTime() - start;
+                    if (hasResultSet) {
+                        pending = new Execution(text, snapshot(), nanos);
+                    } else {
+                        metrics.record(text, snapshot(), nanos, Math.max(0, target.getUpdateCount()));
+                    }
+                    return hasResultSet;
+                }
+                case "executeUpdate":
+                case "executeLargeUpdate": {
+                    String text = sqlOf(args);
+                    finishPending();
+                    long start = System.nanoTime();
+                    Number count = (Number) InstrumentedDataSource.invoke(target, method, args);
+                    metrics.record(text, snapshot(), System.nanoTime() - start, count.longValue());
+                    return count;
+                }
+                case "executeBatch":
+                case "executeLargeBatch": {
+                    finishPending();
+                    long start = System.nanoTime();
+                    Object counts = InstrumentedDataSource.invoke(target, method, args);
+                    long rows = 0;
+                    if (counts instanceof int[] c) for (int n : c) rows += Math.max(0, n);
+                    if (counts instanceof long[] c) for (long n : c) rows += Math.max(0, n);
+                    metrics.recordBatch(sql, batchSize, System.nanoTime() - start, rows);
+                    batchSize = 0;
+                    return counts;
+                }
+                case "addBatch":
+                    batchSize++;
+                    if (args != null && args.length == 1 && sql == null) sql = (String) args[0];
+                    return InstrumentedDataSource.invoke(target, method, args);
+                case "clearParameters":
+                    parameters = null;
+                    maxIndex = 0;
+                    return InstrumentedDataSource.invoke(target, method, args);
+                case "getResultSet": {
+                    ResultSet rs = (ResultSet) InstrumentedDataSource.invoke(target, method, args);
+                    return rs == null || pending == null ? rs : wrap(rs, (Statement) proxy);
+                }
+                case "getConnection":
+                    return connection;
+                case "close":
+                    finishPending();
+                    return InstrumentedDataSource.invoke(target, method, args);
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    return InstrumentedDataSource.invoke(target, method, args);
+            }
+        }
+
+        private String sqlOf(Object[] args) {
+            return args != null && args.length > 0 && args[0] instanceof String s ? s : sql;
+        }
+
+        private void bind(int index, Object value) {
+            if (parameters == null) parameters = new Object[Math.max(8, index + 1)];
+            else if (index >= parameters.length) parameters = Arrays.copyOf(parameters, Math.max(index + 1, parameters.length * 2));
+            parameters[index] = value;
+            maxIndex = Math.max(maxIndex, index);
+        }
+
+        private Object[] snapshot() {
+            return parameters == null ? null : Arrays.copyOf(parameters, maxIndex + 1);
+        }
+
+        private ResultSet wrap(ResultSet rs, Statement statement) {
+            return (ResultSet) Proxy.newProxyInstance(LOADER, new Class<?>[]{ResultSet.class},
+                    new ResultSetHandler(rs, statement, this));
+        }
+
+        /** Records the query whose result set was not closed explicitly. */
+        void finishPending() {
+            Execution e = pending;
+            if (e == null) return;
+            pending = null;
+            metrics.record(e.sql, e.parameters, e.nanos, e.rows);
+        }
+    }
+
+    /** A query between its execution and the close of its result set. */
+    private static final class Execution {
+        final String sql;
+        final Object[] parameters;
+        long nanos;
+        long rows;
+
+        Execution(String sql, Object[] parameters, long nanos) {
+            this.sql = sql;
+            this.parameters = parameters;
+            this.nanos = nanos;
+        }
+    }
+
+    private static final class ResultSetHandler implements InvocationHandler {
+        private final ResultSet target;
+        private final Statement statement;
+        private final StatementHandler owner;
+
+        ResultSetHandler(ResultSet target, Statement statement, StatementHandler owner) {
+            this.target = target;
+            this.statement = statement;
+            this.owner = owner;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "next": {
+                    long start = System.nanoTime();
+                    boolean hasRow = target.next();
+                    Execution e = owner.pending;
+                    if (e != null) {
+                        e.nanos += System.nanoTime() - start;
+                        if (hasRow) e.rows++;
+                    }
+                    return hasRow;
+                }
+                case "close":
+                    try {
+                        return InstrumentedDataSource.invoke(target, method, args);
+                    } finally {
+                        owner.finishPending();
+                    }
+                case "getStatement":
+                    return statement;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    return InstrumentedDataSource.invoke(target, method, args);
+            }
+        }
+    }
+}
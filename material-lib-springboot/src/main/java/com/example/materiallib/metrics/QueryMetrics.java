@@ -0,0 +1,166 @@
+package com.example.materiallib.metrics;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Records every JDBC statement run through an {@link InstrumentedDataSource}.
+ * <p>
+ * Each statement feeds the {@code jdbc.statements} timer and the {@code jdbc.rows} summary,
+ * tagged by operation and first table, and the statistics of the HTTP request it runs for
+ * (see {@link RequestQueryFilter}). The time is the time spent inside the driver,
+ * execution plus fetching rows, so a slow client of a streamed response does not count.
+ * Statements slower than {@code materiallib.metrics.slow-query} are logged with their SQL and
+ * bind parameters.
+ */
+public class QueryMetrics {
+
+    private static final Logger log = LoggerFactory.getLogger(QueryMetrics.class);
+
+    private static final Pattern TABLE = Pattern.compile(
+            "\\b(?:from|into|update|join|table(?:\\s+if\\s+(?:not\\s+)?exists)?)\\s+([A-Za-z_][A-Za-z0-9_]*)", Pattern.CASE_INSENSITIVE);
+    private static final int MAX_LOGGED_PARAMETER = 100;
+
+    private final MeterRegistry registry;
+    private final long slowNanos;
+    private final int maxQueriesPerRequest;
+    private final ThreadLocal<RequestStats> request = new ThreadLocal<>();
+
+    /** Meters by SQL text; statements are mostly constants, so this stays small. */
+    private final Cache<String, Meters> meters = Caffeine.newBuilder().maximumSize(2_000).build();
+    private final Map<String, Meters> metersByTag = new ConcurrentHashMap<>();
+
+    public QueryMetrics(MeterRegistry registry, Duration slowQuery, int maxQueriesPerRequest) {
+        this.registry = registry;
+        this.slowNanos = slowQuery.toNanos();
+        this.maxQueriesPerRequest = maxQueriesPerRequest;
+    }
+
+    public int maxQueriesPerRequest() {
+        return maxQueriesPerRequest;
+    }
+
+    /**
+     * @param parameters bind parameters by index (1-based at position 1), may be null
+     * @param rows       rows fetched, or rows affected by a write
+     */
+    void record(String sql, Object[] parameters, long nanos, long rows) {
+        if (count(sql, nanos, rows)) {
+            log.warn("Slow query ({} ms, {} rows): {} {}", nanos / 1_000_000, rows, sql, describe(parameters));
+        }
+    }
+
+    /** A batch of {@code size} executions of one statement, recorded as a single statement. */
+    void recordBatch(String sql, int size, long nanos, long rows) {
+        if (count(sql, nanos, rows)) {
+            log.warn("Slow batch ({} ms, {} statements, {} rows): {}", nanos / 1_000_000, size, rows, sql);
+        }
+    }
+
+    /** Updates meters and request statistics; returns whether the statement was slow. */
+    private boolean count(String sql, long nanos, long rows) {
+        Meters m = meters.get(sql == null ? "" : sql, this::metersFor);
+        m.timer.record(nanos, TimeUnit.NANOSECONDS);
+        m.rows.record(rows);
+
+        RequestStats stats = request.get();
+        if (stats != null) stats.add(sql, nanos, rows);
+        return nanos >= slowNanos;
+    }
+
+    /** Counts the statements of the current thread against {@code stats}; returns the previous target. */
+    RequestStats attach(RequestStats stats) {
+        RequestStats previous = request.get();
+        request.set(stats);
+        return previous;
+    }
+
+    void restore(RequestStats previous) {
+        if (previous == null) request.remove();
+        else request.set(previous);
+    }
+
+    /**
+     * Wraps a task submitted from a request thread so its statements count against that
+     * request, as for the body of a streamed response.
+     */
+    public Runnable propagate(Runnable task) {
+        RequestStats stats = request.get();
+        if (stats == null) return task;
+        return () -> {
+            RequestStats previous = attach(stats);
+            try {
+                task.run();
+            } finally {
+                restore(previous);
+            }
+        };
+    }
+
+    private Meters metersFor(String sql) {
+        String trimmed = sql.stripLeading();
+        int space = trimmed.indexOf(' ');
+        String operation = (space < 0 ? trimmed : trimmed.substring(0, space)).toLowerCase(Locale.ROOT);
+        if (operation.isEmpty()) operation = "other";
+        Matcher m = TABLE.matcher(trimmed);
+        String table = m.find() ? m.group(1).toLowerCase(Locale.ROOT) : "none";
+        String op = operation;
+        return metersByTag.computeIfAbsent(op + " " + table, k -> new Meters(
+                Timer.builder("jdbc.statements")
+                        .description("Time spent in the driver per statement")
+                        .tag("operation", op).tag("table", table)
+                        .register(registry),
+                DistributionSummary.builder("jdbc.rows")
+                        .description("Rows fetched or written per statement")
+                        .tag("operation", op).tag("table", table)
+                        .register(registry)));
+    }
+
+    private static String describe(Object[] parameters) {
+        if (parameters == null) return "[]";
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 1; i < parameters.length; i++) {
+            if (i > 1) sb.append(", ");
+            Object p = parameters[i];
+            String s = p instanceof byte[] b ? "<" + b.length + " bytes>" : String.valueOf(p);
+            sb.append(s.length() > MAX_LOGGED_PARAMETER ? s.substring(0, MAX_LOGGED_PARAMETER) + "..." : s);
+        }
+        return sb.append(']').toString();
+    }
+
+    private record Meters(Timer timer, DistributionSummary rows) {}
+
+    /** Statements issued by one request. */
+    static final class RequestStats {
+        int statements;
+        long rows;
+        long nanos;
+        /** Statement count by SQL text, to name the repeated one of an N+1. */
+        final Map<String, Integer> bySql = new HashMap<>();
+
+        synchronized void add(String sql, long nanos, long rows) {
+            statements++;
+            this.rows += rows;
+            this.nanos += nanos;
+            if (sql != null) bySql.merge(sql, 1, Integer::sum);
+        }
+
+        synchronized Map.Entry<String, Integer> mostRepeated() {
+            return bySql.entrySet().stream().max(Map.Entry.comparingByValue()).orElse(null);
+        }
+    }
+}
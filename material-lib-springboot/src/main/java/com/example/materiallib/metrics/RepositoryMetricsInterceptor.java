@@ -0,0 +1,54 @@
+package com.example.materiallib.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.util.ClassUtils;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times public repository methods as {@code repository.calls}, tagged by repository, method
+ * and outcome. It runs outside the cache interceptor, so cached lookups are timed as well.
+ */
+public class RepositoryMetricsInterceptor implements MethodInterceptor {
+
+    private final ObjectProvider<MeterRegistry> registry;
+    private final Map<Key, Timer> timers = new ConcurrentHashMap<>();
+
+    public RepositoryMetricsInterceptor(ObjectProvider<MeterRegistry> registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            Object result = invocation.proceed();
+            failed = false;
+            return result;
+        } finally {
+            Class<?> type = invocation.getThis() == null
+                    ? invocation.getMethod().getDeclaringClass()
+                    : ClassUtils.getUserClass(invocation.getThis());
+            timer(new Key(type, invocation.getMethod(), failed)).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private Timer timer(Key key) {
+        return timers.computeIfAbsent(key, k -> Timer.builder("repository.calls")
+                .description("Repository method calls")
+                .tag("repository", k.type.getSimpleName())
+                .tag("method", k.method.getName())
+                .tag("outcome", k.failed ? "error" : "success")
+                .register(registry.getObject()));
+    }
+
+    private record Key(Class<?> type, Method method, boolean failed) {}
+}
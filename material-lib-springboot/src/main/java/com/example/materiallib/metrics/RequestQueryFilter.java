@@ -0,0 +1,83 @@
+package com.example.materiallib.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Counts the statements and rows of each request ({@code http.server.requests.queries} and
+ * {@code http.server.requests.rows}, tagged by method and URI template) and warns when a
+ * request issues more than {@code materiallib.metrics.max-queries-per-request} statements,
+ * the usual sign of an N+1 access pattern. Statements count when they run on the request
+ * thread or on an async task submitted from it (see {@link QueryMetrics#propagate}).
+ */
+public class RequestQueryFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(RequestQueryFilter.class);
+    private static final String STATS_ATTRIBUTE = RequestQueryFilter.class.getName() + ".stats";
+
+    private final QueryMetrics metrics;
+    private final MeterRegistry registry;
+
+    public RequestQueryFilter(QueryMetrics metrics, MeterRegistry registry) {
+        this.metrics = metrics;
+        this.registry = registry;
+    }
+
+    /** Streamed responses finish in an async dispatch, which reports the request. */
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        QueryMetrics.RequestStats stats = (QueryMetrics.RequestStats) request.getAttribute(STATS_ATTRIBUTE);
+        if (stats == null) {
+            stats = new QueryMetrics.RequestStats();
+            request.setAttribute(STATS_ATTRIBUTE, stats);
+        }
+        QueryMetrics.RequestStats previous = metrics.attach(stats);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            metrics.restore(previous);
+            if (!isAsyncStarted(request)) report(request, stats);
+        }
+    }
+
+    private void report(HttpServletRequest request, QueryMetrics.RequestStats stats) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern == null ? "UNKNOWN" : pattern.toString();
+        summary("http.server.requests.queries", "Statements issued per request", request.getMethod(), uri)
+                .record(stats.statements);
+        summary("http.server.requests.rows", "Rows fetched or written per request", request.getMethod(), uri)
+                .record(stats.rows);
+
+        if (stats.statements > metrics.maxQueriesPerRequest()) {
+            Map.Entry<String, Integer> top = stats.mostRepeated();
+            log.warn("{} {} issued {} queries ({} rows, {} ms in the driver); most repeated, {}x: {}",
+                    request.getMethod(), request.getRequestURI(), stats.statements, stats.rows,
+                    stats.nanos / 1_000_000, top == null ? 0 : top.getValue(), top == null ? "-" : top.getKey());
+        }
+    }
+
+    private DistributionSummary summary(String name, String description, String method, String uri) {
+        return DistributionSummary.builder(name)
+                .description(description)
+                .tag("method", method)
+                .tag("uri", uri)
+                .register(registry);
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.materiallib.query;
+
+import java.util.Map;
+
+/** A condition whose composition matched, with its full composition in wt%. */
+public record CompositionHit(
+        long conditionId,
+        String conditionName,
+        long materialId,
+        String materialName,
+        Map<String, Double> composition
+) {}
@@ -0,0 +1,151 @@
+package com.example.materiallib.query;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Parsed compositions of every condition, held as an inverted index from constituent to
+ * its wt% values sorted ascending, each with the row of the composition it belongs to.
+ * <p>
+ * Rows are compositions ordered by condition id; their constituents are also kept in CSR
+ * form ({@code rowStart}, {@code constituent}, {@code fraction}) to return whole compositions.
+ * A query ANDs one row bitset per clause, each filled from a binary-searched slice of the
+ * constituent's sorted values.
+ */
+public final class CompositionIndex {
+
+    private final int rows;
+    private final long[] conditionIds;
+    private final long[] materialIds;
+    private final String[] conditionNames;
+    private final String[] materialNames;
+    private final int[] rowStart;
+    private final String[] constituents;
+    private final int[] constituent;
+    private final double[] fraction;
+    private final Map<String, Postings> postings;
+    /** Constituent names by lower case, for names written in another case. */
+    private final Map<String, String> namesByLowerCase = new HashMap<>();
+
+    CompositionIndex(int rows, long[] conditionIds, long[] materialIds, String[] conditionNames, String[] materialNames,
+                     int[] rowStart, String[] constituents, int[] constituent, double[] fraction,
+                     Map<String, Postings> postings) {
+        this.rows = rows;
+        this.conditionIds = conditionIds;
+        this.materialIds = materialIds;
+        this.conditionNames = conditionNames;
+        this.materialNames = materialNames;
+        this.rowStart = rowStart;
+        this.constituents = constituents;
+        this.constituent = constituent;
+        this.fraction = fraction;
+        this.postings = postings;
+        postings.keySet().forEach(name -> namesByLowerCase.putIfAbsent(name.toLowerCase(Locale.ROOT), name));
+    }
+
+    public int size() {
+        return rows;
+    }
+
+    /** Constituents, by name, with the number of compositions containing each. */
+    public Map<String, Integer> constituents() {
+        Map<String, Integer> out = new TreeMap<>();
+        postings.forEach((name, p) -> out.put(name, p.values.length));
+        return out;
+    }
+
+    /**
+     * Matching compositions in condition id order, at most {@code limit}. Constituents match
+     * as written or, failing that, ignoring case.
+     *
+     * @throws IllegalArgumentException if a clause names a constituent no composition has
+     */
+    public List<CompositionHit> search(CompositionQuery query, int limit) {
+        long[] words = new long[(rows + 63) >>> 6];
+        Arrays.fill(words, -1L);
+        if ((rows & 63) != 0) words[words.length - 1] = (1L << (rows & 63)) - 1;
+
+        for (CompositionQuery.Clause c : query.clauses()) {
+            Postings p = postings(c.constituent());
+            long[] clause = new long[words.length];
+            int lo = lowerBound(p.values, c.min());
+            int hi = upperBound(p.values, c.max());
+            for (int i = lo; i < hi; i++) clause[p.rows[i] >>> 6] |= 1L << p.rows[i];
+            if (c.includesZero()) {
+                // rows without the constituent (0 wt%) also match
+                for (int w = 0; w < words.length; w++) clause[w] |= ~p.present[w];
+            }
+            for (int w = 0; w < words.length; w++) words[w] &= clause[w];
+        }
+
+        List<CompositionHit> out = new ArrayList<>();
+        for (int w = 0; w < words.length && out.size() < limit; w++) {
+            long word = words[w];
+            while (word != 0 && out.size() < limit) {
+                int row = (w << 6) + Long.numberOfTrailingZeros(word);
+                out.add(hit(row));
+                word &= word - 1;
+            }
+        }
+        return out;
+    }
+
+    private Postings postings(String name) {
+        Postings p = postings.get(name);
+        if (p == null) {
+            String known = namesByLowerCase.get(name.toLowerCase(Locale.ROOT));
+            if (known == null) throw new IllegalArgumentException("Unknown constituent: " + name);
+            p = postings.get(known);
+        }
+        return p;
+    }
+
+    private CompositionHit hit(int row) {
+        Map<String, Double> composition = new LinkedHashMap<>();
+        for (int i = rowStart[row]; i < rowStart[row + 1]; i++) {
+            composition.put(constituents[constituent[i]], fraction[i]);
+        }
+        return new CompositionHit(conditionIds[row], conditionNames[row], materialIds[row], materialNames[row], composition);
+    }
+
+    private static int lowerBound(double[] values, double v) {
+        int lo = 0;
+        int hi = values.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (values[mid] < v) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    private static int upperBound(double[] values, double v) {
+        int lo = 0;
+        int hi = values.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (values[mid] <= v) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    /** wt% values of one constituent, ascending, with their rows and a presence bitset. */
+    static final class Postings {
+        final double[] values;
+        final int[] rows;
+        final long[] present;
+
+        Postings(double[] values, int[] rows, long[] present) {
+            this.values = values;
+            this.rows = rows;
+            this.present = present;
+        }
+    }
+}
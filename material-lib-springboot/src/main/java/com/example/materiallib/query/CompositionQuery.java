@@ -0,0 +1,74 @@
+package com.example.materiallib.query;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Conjunction of wt% ranges on composition constituents, parsed from e.g.
+ * {@code "Cu<=2 & Mg between 0.5 and 1.2"}.
+ * <p>
+ * Clauses are separated by {@code &} or {@code ,} and have the form {@code X<=v}, {@code X<v},
+ * {@code X>=v}, {@code X>v}, {@code X=v}, {@code X=a..b} or {@code X between a and b}, where
+ * {@code X} is a constituent as written in the composition (e.g. {@code Cu}, {@code Al2O3}),
+ * in any case. A constituent missing from a composition counts as 0 wt%.
+ */
+public record CompositionQuery(List<Clause> clauses) {
+
+    /** Inclusive range on one constituent. */
+    public record Clause(String constituent, double min, double max) {
+
+        boolean includesZero() {
+            return min <= 0 && max >= 0;
+        }
+    }
+
+    private static final Pattern CLAUSE =
+            Pattern.compile("\\s*([A-Za-z][A-Za-z0-9_]*)\\s*(<=|>=|<|>|=|\\s+between\\s+)\\s*(.+?)\\s*",
+                    Pattern.CASE_INSENSITIVE);
+    private static final Pattern BETWEEN = Pattern.compile("(\\S+)\\s+and\\s+(\\S+)", Pattern.CASE_INSENSITIVE);
+
+    /**
+     * @throws IllegalArgumentException if a clause does not parse, or its range is inverted
+     *                                  ({@code Mg between 2 and 1}, {@code Cu=3..1})
+     */
+    public static CompositionQuery parse(String q) {
+        List<Clause> clauses = new ArrayList<>();
+        for (String part : q.split("[&,]")) {
+            if (part.isBlank()) continue;
+            Matcher m = CLAUSE.matcher(part);
+            if (!m.matches()) throw new IllegalArgumentException("Invalid composition clause: " + part.trim());
+            String name = m.group(1);
+            String op = m.group(2).trim().toLowerCase(Locale.ROOT);
+            String value = m.group(3);
+            Clause clause;
+            try {
+                clause = switch (op) {
+                    case "<=" -> new Clause(name, Double.NEGATIVE_INFINITY, Double.parseDouble(value));
+                    case "<" -> new Clause(name, Double.NEGATIVE_INFINITY, Math.nextDown(Double.parseDouble(value)));
+                    case ">=" -> new Clause(name, Double.parseDouble(value), Double.POSITIVE_INFINITY);
+                    case ">" -> new Clause(name, Math.nextUp(Double.parseDouble(value)), Double.POSITIVE_INFINITY);
+                    case "between" -> {
+                        Matcher b = BETWEEN.matcher(value);
+                        if (!b.matches()) throw new NumberFormatException();
+                        yield new Clause(name, Double.parseDouble(b.group(1)), Double.parseDouble(b.group(2)));
+                    }
+                    default -> {
+                        double[] bounds = RangePredicate.bounds(name, value);
+                        yield new Clause(name, bounds[0], bounds[1]);
+                    }
+                };
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid composition clause: " + part.trim());
+            }
+            if (clause.min() > clause.max()) {
+                throw new IllegalArgumentException("Inverted range for " + name + ": " + part.trim());
+            }
+            clauses.add(clause);
+        }
+        if (clauses.isEmpty()) throw new IllegalArgumentException("Empty composition query");
+        return new CompositionQuery(List.copyOf(clauses));
+    }
+}
@@ -0,0 +1,174 @@
+package com.example.materiallib.query;
+
+import com.example.materiallib.DatasetChangedEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Element-range queries over the compositions stored as JSON in
+ * {@code condition_properties.value_text} ({@code prop_key = composition_wt_percent}).
+ * <p>
+ * The JSON is parsed once, when the {@link CompositionIndex} is (re)built after a seed or
+ * import, never on the request path. Loaded lazily on first use; a rebuild swaps the
+ * reference atomically. Only the first composition row of a condition is used.
+ */
+@Component
+public class CompositionQueryEngine {
+
+    public static final String PROP_KEY = "composition_wt_percent";
+
+    private static final Logger log = LoggerFactory.getLogger(CompositionQueryEngine.class);
+
+    private final JdbcTemplate jdbc;
+    private final ObjectMapper json;
+    private volatile CompositionIndex index;
+
+    public CompositionQueryEngine(@Qualifier("readJdbc") JdbcTemplate jdbc, ObjectMapper json) {
+        this.jdbc = jdbc;
+        this.json = json;
+    }
+
+    public CompositionIndex index() {
+        CompositionIndex i = index;
+        if (i == null) {
+            synchronized (this) {
+                i = index;
+                if (i == null) {
+                    i = load();
+                    index = i;
+                }
+            }
+        }
+        return i;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the query does not parse
+     */
+    public List<CompositionHit> search(String query, int limit) {
+        return index().search(CompositionQuery.parse(query), limit);
+    }
+
+    @EventListener
+    public void onDatasetChanged(DatasetChangedEvent event) {
+        if (!event.touches("condition_properties") && !event.touches("conditions") && !event.touches("materials")) return;
+        synchronized (this) {
+            index = load();
+        }
+    }
+
+    private CompositionIndex load() {
+        long start = System.nanoTime();
+        var rows = new Object() {
+            int n = 0;
+            int skipped = 0;
+            long lastCondition = Long.MIN_VALUE;
+            long[] conditionIds = new long[256];
+            long[] materialIds = new long[256];
+            String[] conditionNames = new String[256];
+            String[] materialNames = new String[256];
+            int[] rowStart = new int[257];
+            int entries = 0;
+            int[] constituent = new int[1024];
+            double[] fraction = new double[1024];
+        };
+        Map<String, Integer> constituentIds = new LinkedHashMap<>();
+
+        jdbc.query("SELECT p.condition_id, p.value_text, c.material_id, c.condition_name, m.name"
+                + " FROM condition_properties p JOIN conditions c ON c.id = p.condition_id"
+                + " JOIN materials m ON m.id = c.material_id"
+                + " WHERE p.prop_key = ? AND p.value_text IS NOT NULL"
+                + " ORDER BY p.condition_id, p.id", rs -> {
+            long conditionId = rs.getLong(1);
+            if (conditionId == rows.lastCondition) return;
+            JsonNode node;
+            try {
+                node = json.readTree(rs.getString(2));
+            } catch (JsonProcessingException e) {
+                rows.skipped++;
+                return;
+            }
+            if (node == null || !node.isObject()) {
+                rows.skipped++;
+                return;
+            }
+            rows.lastCondition = conditionId;
+            int i = rows.n;
+            if (i == rows.conditionIds.length) {
+                int cap = i * 2;
+                rows.conditionIds = Arrays.copyOf(rows.conditionIds, cap);
+                rows.materialIds = Arrays.copyOf(rows.materialIds, cap);
+                rows.conditionNames = Arrays.copyOf(rows.conditionNames, cap);
+                rows.materialNames = Arrays.copyOf(rows.materialNames, cap);
+                rows.rowStart = Arrays.copyOf(rows.rowStart, cap + 1);
+            }
+            rows.conditionIds[i] = conditionId;
+            rows.materialIds[i] = rs.getLong(3);
+            rows.conditionNames[i] = rs.getString(4);
+            rows.materialNames[i] = rs.getString(5);
+            for (Iterator<Map.Entry<String, JsonNode>> it = node.fields(); it.hasNext(); ) {
+                Map.Entry<String, JsonNode> e = it.next();
+                if (!e.getValue().isNumber()) continue;
+                if (rows.entries == rows.constituent.length) {
+                    rows.constituent = Arrays.copyOf(rows.constituent, rows.entries * 2);
+                    rows.fraction = Arrays.copyOf(rows.fraction, rows.entries * 2);
+                }
+                rows.constituent[rows.entries] = constituentIds.computeIfAbsent(e.getKey(), k -> constituentIds.size());
+                rows.fraction[rows.entries] = e.getValue().doubleValue();
+                rows.entries++;
+            }
+            rows.n = i + 1;
+            rows.rowStart[rows.n] = rows.entries;
+        }, PROP_KEY);
+
+        int n = rows.n;
+        String[] names = constituentIds.keySet().toArray(String[]::new);
+        List<List<Integer>> entriesByConstituent = new ArrayList<>(names.length);
+        for (int c = 0; c < names.length; c++) entriesByConstituent.add(new ArrayList<>());
+        int[] rowOfEntry = new int[rows.entries];
+        for (int r = 0; r < n; r++) {
+            for (int e = rows.rowStart[r]; e < rows.rowStart[r + 1]; e++) {
+                rowOfEntry[e] = r;
+                entriesByConstituent.get(rows.constituent[e]).add(e);
+            }
+        }
+        Map<String, CompositionIndex.Postings> postings = new HashMap<>();
+        double[] fraction = rows.fraction;
+        for (int c = 0; c < names.length; c++) {
+            List<Integer> entries = entriesByConstituent.get(c);
+            entries.sort((a, b) -> Double.compare(fraction[a], fraction[b]));
+            double[] values = new double[entries.size()];
+            int[] postingRows = new int[entries.size()];
+            long[] present = new long[(n + 63) >>> 6];
+            for (int k = 0; k < values.length; k++) {
+                int e = entries.get(k);
+                values[k] = fraction[e];
+                postingRows[k] = rowOfEntry[e];
+                present[postingRows[k] >>> 6] |= 1L << postingRows[k];
+            }
+            postings.put(names[c], new CompositionIndex.Postings(values, postingRows, present));
+        }
+
+        CompositionIndex index = new CompositionIndex(n, rows.conditionIds, rows.materialIds, rows.conditionNames,
+                rows.materialNames, rows.rowStart, names, Arrays.copyOf(rows.constituent, rows.entries),
+                Arrays.copyOf(fraction, rows.entries), postings);
+        log.info("Loaded composition index: {} compositions, {} constituents, {} unparseable in {} ms",
+                n, names.length, rows.skipped, (System.nanoTime() - start) / 1_000_000);
+        return index;
+    }
+}
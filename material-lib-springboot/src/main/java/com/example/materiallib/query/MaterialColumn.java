@@ -0,0 +1,34 @@
+package com.example.materiallib.query;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * Numeric columns of the {@code materials} table, in the order they appear in schema.sql.
+ */
+public enum MaterialColumn {
+    DENSITY("density"),
+    YOUNGS_MODULUS("youngs_modulus"),
+    POISSON_RATIO("poisson_ratio"),
+    YIELD_STRENGTH("yield_strength"),
+    ULTIMATE_STRENGTH("ultimate_strength"),
+    TOUGHNESS("toughness"),
+    THERMAL_EXPANSION("thermal_expansion"),
+    MELTING_POINT("melting_point"),
+    THERMAL_CONDUCTIVITY("thermal_conductivity");
+
+    private final String column;
+
+    MaterialColumn(String column) {
+        this.column = column;
+    }
+
+    /** SQL column name, also used as the request parameter name. */
+    public String column() {
+        return column;
+    }
+
+    public static Optional<MaterialColumn> fromColumn(String column) {
+        return Arrays.stream(values()).filter(c -> c.column.equals(column)).findFirst();
+    }
+}
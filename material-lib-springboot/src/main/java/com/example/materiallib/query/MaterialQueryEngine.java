@@ -0,0 +1,115 @@
+package com.example.materiallib.query;
+
+import com.example.materiallib.DatasetChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Evaluates multi-column range filters over an in-memory {@link MaterialSnapshot}.
+ * <p>
+ * The snapshot is loaded lazily on first use and rebuilt whenever the dataset changes.
+ * Readers always see a complete snapshot: a rebuild swaps the reference atomically.
+ */
+@Component
+public class MaterialQueryEngine {
+
+    private static final Logger log = LoggerFactory.getLogger(MaterialQueryEngine.class);
+
+    private final JdbcTemplate jdbc;
+    private volatile MaterialSnapshot snapshot;
+
+    public MaterialQueryEngine(@Qualifier("readJdbc") JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    public MaterialSnapshot snapshot() {
+        MaterialSnapshot s = snapshot;
+        if (s == null) {
+            synchronized (this) {
+                s = snapshot;
+                if (s == null) {
+                    s = load();
+                    snapshot = s;
+                }
+            }
+        }
+        return s;
+    }
+
+    /** Material ids matching every predicate, ordered by (name, id). */
+    public long[] filter(List<RangePredicate> predicates, String category, String nameContains, int limit) {
+        return filter(predicates, category, nameContains, null, 0, limit);
+    }
+
+    /**
+     * Like {@link #filter(List, String, String, int)}, but starting after the row
+     * (afterName, afterId) when {@code afterName} is not null: the next keyset page.
+     */
+    public long[] filter(List<RangePredicate> predicates, String category, String nameContains,
+                         String afterName, long afterId, int limit) {
+        MaterialSnapshot s = snapshot();
+        long[] words = s.filter(predicates, category, nameContains);
+        if (afterName != null) MaterialSnapshot.clearBefore(words, s.firstAfter(afterName, afterId));
+        return s.ids(words, limit);
+    }
+
+    @EventListener
+    public void onDatasetChanged(DatasetChangedEvent event) {
+        if (!event.touches("materials")) return;
+        synchronized (this) {
+            snapshot = load();
+        }
+    }
+
+    private MaterialSnapshot load() {
+        long start = System.nanoTime();
+        MaterialColumn[] cols = MaterialColumn.values();
+        StringBuilder sql = new StringBuilder("SELECT id, name, category");
+        for (MaterialColumn c : cols) sql.append(", ").append(c.column());
+        sql.append(" FROM materials ORDER BY name, id");
+
+        var rows = new Object() {
+            int n = 0;
+            long[] ids = new long[1024];
+            String[] names = new String[1024];
+            String[] categories = new String[1024];
+            double[][] values = new double[cols.length][1024];
+        };
+
+        jdbc.query(sql.toString(), rs -> {
+            int i = rows.n;
+            if (i == rows.ids.length) {
+                int cap = i * 2;
+                rows.ids = Arrays.copyOf(rows.ids, cap);
+                rows.names = Arrays.copyOf(rows.names, cap);
+                rows.categories = Arrays.copyOf(rows.categories, cap);
+                for (int c = 0; c < cols.length; c++) rows.values[c] = Arrays.copyOf(rows.values[c], cap);
+            }
+            rows.ids[i] = rs.getLong(1);
+            rows.names[i] = rs.getString(2);
+            String category = rs.getString(3);
+            rows.categories[i] = category == null ? null : category.intern();
+            for (int c = 0; c < cols.length; c++) {
+                double v = rs.getDouble(4 + c);
+                rows.values[c][i] = rs.wasNull() ? Double.NaN : v;
+            }
+            rows.n = i + 1;
+        });
+
+        // trimmed, so that no column array carries the growth padding past the last row
+        int n = rows.n;
+        double[][] values = new double[cols.length][];
+        for (int c = 0; c < cols.length; c++) values[c] = Arrays.copyOf(rows.values[c], n);
+        MaterialSnapshot s = new MaterialSnapshot(n, Arrays.copyOf(rows.ids, n), Arrays.copyOf(rows.names, n),
+                Arrays.copyOf(rows.categories, n), values);
+        log.info("Loaded material snapshot: {} rows in {} ms", rows.n, (System.nanoTime() - start) / 1_000_000);
+        return s;
+    }
+}
@@ -0,0 +1,174 @@
+package com.example.materiallib.query;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Immutable columnar copy of the {@code materials} table.
+ * <p>
+ * Rows are ordered by (name, id), the same order the list endpoints use, so that a
+ * filtered result can be emitted by walking the selection bitset from the start.
+ * Numeric columns are held as {@code double[]} with NaN marking NULL.
+ */
+public final class MaterialSnapshot {
+
+    private final int size;
+    private final long[] ids;
+    private final String[] names;
+    private final String[] lowerNames;
+    private final String[] categories;
+    private final double[][] columns;
+
+    public MaterialSnapshot(int size, long[] ids, String[] names, String[] categories, double[][] columns) {
+        this.size = size;
+        this.ids = ids;
+        this.names = names;
+        this.categories = categories;
+        this.columns = columns;
+        this.lowerNames = new String[size];
+        for (int i = 0; i < size; i++) {
+            lowerNames[i] = names[i] == null ? "" : names[i].toLowerCase(Locale.ROOT);
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long id(int row) {
+        return ids[row];
+    }
+
+    public String name(int row) {
+        return names[row];
+    }
+
+    public String category(int row) {
+        return categories[row];
+    }
+
+    public double value(MaterialColumn column, int row) {
+        return columns[column.ordinal()][row];
+    }
+
+    /**
+     * Direct access to a column array; callers must not modify it, and must only read its
+     * first {@link #size()} values.
+     */
+    public double[] column(MaterialColumn column) {
+        return columns[column.ordinal()];
+    }
+
+    /** Bitset with one bit set per row, i.e. the unfiltered selection. */
+    public long[] all() {
+        long[] words = new long[(size + 63) >>> 6];
+        Arrays.fill(words, -1L);
+        int tail = size & 63;
+        if (tail != 0) words[words.length - 1] = (1L << tail) - 1;
+        return words;
+    }
+
+    /** Clears every row whose value is outside the predicate's range or missing. */
+    public void and(long[] words, RangePredicate p) {
+        double[] col = columns[p.column().ordinal()];
+        double min = p.min();
+        double max = p.max();
+        for (int w = 0; w < words.length; w++) {
+            long word = words[w];
+            if (word == 0) continue;
+            int base = w << 6;
+            int end = Math.min(64, size - base);
+            long keep = 0;
+            for (int b = 0; b < end; b++) {
+                double v = col[base + b];
+                // NaN fails both comparisons, so NULLs drop out here
+                if (v >= min && v <= max) keep |= 1L << b;
+            }
+            words[w] = word & keep;
+        }
+    }
+
+    public void andCategory(long[] words, String category) {
+        forEachSet(words, row -> {
+            if (!category.equals(categories[row])) clear(words, row);
+        });
+    }
+
+    /** Case-insensitive substring match, mirroring {@code name LIKE '%q%'}. */
+    public void andNameContains(long[] words, String q) {
+        String needle = q.toLowerCase(Locale.ROOT);
+        forEachSet(words, row -> {
+            if (!lowerNames[row].contains(needle)) clear(words, row);
+        });
+    }
+
+    public long[] filter(List<RangePredicate> predicates, String category, String nameContains) {
+        long[] words = all();
+        for (RangePredicate p : predicates) and(words, p);
+        if (category != null) andCategory(words, category);
+        if (nameContains != null) andNameContains(words, nameContains);
+        return words;
+    }
+
+    /** First row ordered after (name, id), or {@link #size()} if there is none. */
+    public int firstAfter(String name, long id) {
+        int lo = 0;
+        int hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            int c = names[mid].compareTo(name);
+            if (c < 0 || (c == 0 && ids[mid] <= id)) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    /** Clears every row before {@code row}. */
+    public static void clearBefore(long[] words, int row) {
+        int w = row >>> 6;
+        Arrays.fill(words, 0, Math.min(w, words.length), 0L);
+        if (w < words.length) words[w] &= -1L << (row & 63);
+    }
+
+    /** Ids of the first {@code limit} selected rows, in (name, id) order. */
+    public long[] ids(long[] words, int limit) {
+        long[] out = new long[Math.min(limit, cardinality(words))];
+        int n = 0;
+        for (int w = 0; w < words.length && n < out.length; w++) {
+            long word = words[w];
+            while (word != 0 && n < out.length) {
+                int b = Long.numberOfTrailingZeros(word);
+                out[n++] = ids[(w << 6) + b];
+                word &= word - 1;
+            }
+        }
+        return out;
+    }
+
+    public static int cardinality(long[] words) {
+        int c = 0;
+        for (long word : words) c += Long.bitCount(word);
+        return c;
+    }
+
+    public static void forEachSet(long[] words, RowConsumer consumer) {
+        for (int w = 0; w < words.length; w++) {
+            long word = words[w];
+            while (word != 0) {
+                int b = Long.numberOfTrailingZeros(word);
+                consumer.accept((w << 6) + b);
+                word &= word - 1;
+            }
+        }
+    }
+
+    private static void clear(long[] words, int row) {
+        words[row >>> 6] &= ~(1L << row);
+    }
+
+    @FunctionalInterface
+    public interface RowConsumer {
+        void accept(int row);
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.materiallib.query;
+
+public record PropertyHit(
+        long propertyId,
+        long conditionId,
+        String conditionName,
+        long materialId,
+        String materialName,
+        String propKey,
+        double value,
+        String unit,
+        Double temperatureC
+) {}
@@ -0,0 +1,115 @@
+package com.example.materiallib.query;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable index of the numeric {@code condition_properties} rows, one column group per
+ * {@code prop_key}, each sorted by value ascending.
+ * <p>
+ * A value range is located with two binary searches and walked from either end, so a
+ * ranked or top-K query touches only the rows it returns plus those rejected by the
+ * temperature filter or as repeats of a condition; nothing is sorted at query time. Temperatures are held as
+ * {@code double[]} with NaN marking NULL.
+ */
+public final class PropertyIndex {
+
+    private final Map<String, KeyColumn> byKey;
+    private final Map<Long, String> conditionNames;
+    private final Map<Long, String> materialNames;
+
+    PropertyIndex(Map<String, KeyColumn> byKey, Map<Long, String> conditionNames, Map<Long, String> materialNames) {
+        this.byKey = byKey;
+        this.conditionNames = conditionNames;
+        this.materialNames = materialNames;
+    }
+
+    public Set<String> keys() {
+        return byKey.keySet();
+    }
+
+    public int size(String key) {
+        KeyColumn k = byKey.get(key);
+        return k == null ? 0 : k.values.length;
+    }
+
+    /**
+     * Up to {@code limit} conditions with a row of {@code key} with {@code min <= value <= max},
+     * highest value first when {@code descending}. Each condition appears once, with its first
+     * matching row in that order (its highest value when descending, else its lowest). When a
+     * temperature bound is finite, rows must have a temperature within {@code [tMin, tMax]};
+     * otherwise the temperature is not checked.
+     */
+    public List<PropertyHit> search(String key, double min, double max, double tMin, double tMax,
+                                    boolean descending, int limit) {
+        KeyColumn k = byKey.get(key);
+        if (k == null || min > max) return List.of();
+        int lo = lowerBound(k.values, min);
+        int hi = upperBound(k.values, max);
+        boolean checkTemperature = tMin != Double.NEGATIVE_INFINITY || tMax != Double.POSITIVE_INFINITY;
+
+        List<PropertyHit> out = new ArrayList<>(Math.min(limit, hi - lo));
+        Set<Long> seen = new HashSet<>();
+        for (int n = 0; n < hi - lo && out.size() < limit; n++) {
+            int row = descending ? hi - 1 - n : lo + n;
+            double t = k.temperatures[row];
+            // NaN fails both comparisons, so rows without a temperature drop out here
+            if (checkTemperature && !(t >= tMin && t <= tMax)) continue;
+            long conditionId = k.conditionIds[row];
+            if (!seen.add(conditionId)) continue;
+            long materialId = k.materialIds[row];
+            out.add(new PropertyHit(k.propertyIds[row], conditionId, conditionNames.get(conditionId),
+                    materialId, materialNames.get(materialId), key, k.values[row], k.units[row],
+                    Double.isNaN(t) ? null : t));
+        }
+        return out;
+    }
+
+    /** First index with {@code values[i] >= v}. */
+    private static int lowerBound(double[] values, double v) {
+        int lo = 0;
+        int hi = values.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (values[mid] < v) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    /** First index with {@code values[i] > v}. */
+    private static int upperBound(double[] values, double v) {
+        int lo = 0;
+        int hi = values.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (values[mid] <= v) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    /** Rows of one prop_key, parallel arrays sorted by value (then property id). */
+    static final class KeyColumn {
+        final double[] values;
+        final double[] temperatures;
+        final long[] propertyIds;
+        final long[] conditionIds;
+        final long[] materialIds;
+        final String[] units;
+
+        KeyColumn(int n, double[] values, double[] temperatures, long[] propertyIds,
+                  long[] conditionIds, long[] materialIds, String[] units) {
+            this.values = Arrays.copyOf(values, n);
+            this.temperatures = Arrays.copyOf(temperatures, n);
+            this.propertyIds = Arrays.copyOf(propertyIds, n);
+            this.conditionIds = Arrays.copyOf(conditionIds, n);
+            this.materialIds = Arrays.copyOf(materialIds, n);
+            this.units = Arrays.copyOf(units, n);
+        }
+    }
+}
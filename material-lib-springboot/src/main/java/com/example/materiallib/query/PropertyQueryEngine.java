@@ -0,0 +1,141 @@
+package com.example.materiallib.query;
+
+import com.example.materiallib.DatasetChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Cross-condition property search over an in-memory {@link PropertyIndex}: "which conditions
+ * have prop_key within a value range (at a temperature range)", ranked by value.
+ * <p>
+ * Loaded lazily on first use and rebuilt when properties, conditions or materials change;
+ * a rebuild swaps the reference atomically.
+ */
+@Component
+public class PropertyQueryEngine {
+
+    private static final Logger log = LoggerFactory.getLogger(PropertyQueryEngine.class);
+
+    private final JdbcTemplate jdbc;
+    private volatile PropertyIndex index;
+
+    public PropertyQueryEngine(@Qualifier("readJdbc") JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    public PropertyIndex index() {
+        PropertyIndex i = index;
+        if (i == null) {
+            synchronized (this) {
+                i = index;
+                if (i == null) {
+                    i = load();
+                    index = i;
+                }
+            }
+        }
+        return i;
+    }
+
+    /**
+     * Ranked matches of {@code key}. {@code value} and {@code temperature} are optional range
+     * specs in the {@link RangePredicate#parse} syntax ({@code "a..b"}, {@code "a.."}, {@code "..b"}).
+     *
+     * @throws IllegalArgumentException if a range spec is malformed or its bounds are inverted
+     */
+    public List<PropertyHit> search(String key, String value, String temperature, boolean descending, int limit) {
+        double[] v = value == null ? new double[]{Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY}
+                : RangePredicate.bounds("value", value);
+        double[] t = temperature == null ? new double[]{Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY}
+                : RangePredicate.bounds("temperature", temperature);
+        if (v[0] > v[1]) throw new IllegalArgumentException("Inverted range for value: " + value);
+        if (t[0] > t[1]) throw new IllegalArgumentException("Inverted range for temperature: " + temperature);
+        return index().search(key, v[0], v[1], t[0], t[1], descending, limit);
+    }
+
+    @EventListener
+    public void onDatasetChanged(DatasetChangedEvent event) {
+        if (!event.touches("condition_properties") && !event.touches("conditions") && !event.touches("materials")) return;
+        synchronized (this) {
+            index = load();
+        }
+    }
+
+    private PropertyIndex load() {
+        long start = System.nanoTime();
+        Map<Long, String> conditionNames = new HashMap<>();
+        Map<Long, String> materialNames = new HashMap<>();
+        jdbc.query("SELECT id, condition_name FROM conditions", rs -> {
+            conditionNames.put(rs.getLong(1), rs.getString(2));
+        });
+        jdbc.query("SELECT id, name FROM materials", rs -> {
+            materialNames.put(rs.getLong(1), rs.getString(2));
+        });
+
+        Map<String, PropertyIndex.KeyColumn> byKey = new HashMap<>();
+        Map<String, String> units = new HashMap<>();
+        var rows = new Object() {
+            String key;
+            int n = 0;
+            int total = 0;
+            double[] values = new double[1024];
+            double[] temperatures = new double[1024];
+            long[] propertyIds = new long[1024];
+            long[] conditionIds = new long[1024];
+            long[] materialIds = new long[1024];
+            String[] units = new String[1024];
+
+            void flush() {
+                if (n > 0) byKey.put(key, new PropertyIndex.KeyColumn(n, values, temperatures, propertyIds,
+                        conditionIds, materialIds, this.units));
+                total += n;
+                n = 0;
+            }
+        };
+
+        jdbc.query("SELECT p.prop_key, p.value_num, p.temperature_c, p.id, p.condition_id, c.material_id, p.unit"
+                + " FROM condition_properties p JOIN conditions c ON c.id = p.condition_id"
+                + " WHERE p.value_num IS NOT NULL AND p.prop_key IS NOT NULL"
+                + " ORDER BY p.prop_key, p.value_num, p.id", rs -> {
+            String key = rs.getString(1);
+            if (!key.equals(rows.key)) {
+                rows.flush();
+                rows.key = key;
+            }
+            int i = rows.n;
+            if (i == rows.values.length) {
+                int cap = i * 2;
+                rows.values = Arrays.copyOf(rows.values, cap);
+                rows.temperatures = Arrays.copyOf(rows.temperatures, cap);
+                rows.propertyIds = Arrays.copyOf(rows.propertyIds, cap);
+                rows.conditionIds = Arrays.copyOf(rows.conditionIds, cap);
+                rows.materialIds = Arrays.copyOf(rows.materialIds, cap);
+                rows.units = Arrays.copyOf(rows.units, cap);
+            }
+            rows.values[i] = rs.getDouble(2);
+            double t = rs.getDouble(3);
+            rows.temperatures[i] = rs.wasNull() ? Double.NaN : t;
+            rows.propertyIds[i] = rs.getLong(4);
+            rows.conditionIds[i] = rs.getLong(5);
+            rows.materialIds[i] = rs.getLong(6);
+            String unit = rs.getString(7);
+            rows.units[i] = unit == null ? null : units.computeIfAbsent(unit, u -> u);
+            rows.n = i + 1;
+        });
+        rows.flush();
+
+        PropertyIndex i = new PropertyIndex(Map.copyOf(byKey), conditionNames, materialNames);
+        log.info("Loaded property index: {} rows over {} keys in {} ms",
+                rows.total, byKey.size(), (System.nanoTime() - start) / 1_000_000);
+        return i;
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.materiallib.query;
+
+/**
+ * Inclusive range {@code min <= column <= max} on one numeric material column.
+ * Open ends are represented by infinities; missing (NULL) values never match.
+ */
+public record RangePredicate(MaterialColumn column, double min, double max) {
+
+    /**
+     * Parses {@code "a..b"}, {@code "a.."} or {@code "..b"}; a bare number means equality.
+     */
+    public static RangePredicate parse(MaterialColumn column, String spec) {
+        double[] bounds = bounds(column.column(), spec);
+        return new RangePredicate(column, bounds[0], bounds[1]);
+    }
+
+    /** {@code {min, max}} of a range spec in the syntax of {@link #parse}. */
+    static double[] bounds(String name, String spec) {
+        String s = spec.trim();
+        int dots = s.indexOf("..");
+        try {
+            if (dots < 0) {
+                double v = Double.parseDouble(s);
+                return new double[]{v, v};
+            }
+            String lo = s.substring(0, dots).trim();
+            String hi = s.substring(dots + 2).trim();
+            return new double[]{
+                    lo.isEmpty() ? Double.NEGATIVE_INFINITY : Double.parseDouble(lo),
+                    hi.isEmpty() ? Double.POSITIVE_INFINITY : Double.parseDouble(hi)};
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid range for " + name + ": " + spec);
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.materiallib.repo;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+
+/**
+ * Coalesces concurrent lookups by id into set-based queries (see {@link LookupBatching}).
+ * <p>
+ * Concurrent lookups of the same id share one in-flight result. Lookups of distinct ids
+ * join the open batch; the caller that opened it waits for a query slot (and the window, if
+ * any), closes it, runs the bulk query on its own thread and hands each waiting caller its
+ * row. Statements therefore count against the request of the caller that ran them.
+ *
+ * @param <V> the value of one id; the bulk query leaves ids without a row out of its map,
+ *            and {@link #load} returns null for them
+ */
+final class BatchLoader<V> {
+
+    private final Function<long[], Map<Long, V>> bulk;
+    private final long windowNanos;
+    private final int maxBatch;
+    private final Semaphore slots;
+    private final Map<Long, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    /** The batch still accepting ids; guarded by {@code this}. */
+    private Batch<V> open;
+
+    BatchLoader(Function<long[], Map<Long, V>> bulk, long windowNanos, int maxBatch, int concurrency) {
+        this.bulk = bulk;
+        this.windowNanos = windowNanos;
+        this.maxBatch = maxBatch;
+        this.slots = new Semaphore(concurrency);
+    }
+
+    V load(long id) {
+        CompletableFuture<V> future = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(id, future);
+        if (existing != null) return join(existing);
+
+        Batch<V> batch;
+        boolean leader;
+        synchronized (this) {
+            leader = open == null;
+            if (leader) open = new Batch<>();
+            batch = open;
+            batch.ids.add(id);
+            batch.futures.add(future);
+            if (batch.ids.size() >= maxBatch) open = null;
+        }
+        if (leader) {
+            if (windowNanos > 0) LockSupport.parkNanos(windowNanos);
+            slots.acquireUninterruptibly();
+            try {
+                synchronized (this) {
+                    if (open == batch) open = null;
+                }
+                run(batch);
+            } finally {
+                slots.release();
+            }
+        }
+        return join(future);
+    }
+
+    private void run(Batch<V> batch) {
+        long[] ids = new long[batch.ids.size()];
+        for (int i = 0; i < ids.length; i++) ids[i] = batch.ids.get(i);
+        try {
+            Map<Long, V> rows = bulk.apply(ids);
+            for (int i = 0; i < ids.length; i++) {
+                inFlight.remove(ids[i]);
+                batch.futures.get(i).complete(rows.get(ids[i]));
+            }
+        } catch (RuntimeException | Error e) {
+            for (int i = 0; i < ids.length; i++) {
+                inFlight.remove(ids[i]);
+                batch.futures.get(i).completeExceptionally(e);
+            }
+            throw e;
+        }
+    }
+
+    /** Waits for the result, rethrowing the bulk query's own exception rather than a wrapper. */
+    private static <V> V join(CompletableFuture<V> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException r) throw r;
+            if (e.getCause() instanceof Error err) throw err;
+            throw e;
+        }
+    }
+
+    /** {@code ?,?,...,?} for an {@code IN} list of {@code n} ids. */
+    static String placeholders(int n) {
+        return "?,".repeat(n - 1) + "?";
+    }
+
+    static Object[] args(long[] ids) {
+        Object[] args = new Object[ids.length];
+        for (int i = 0; i < ids.length; i++) args[i] = ids[i];
+        return args;
+    }
+
+    private static final class Batch<V> {
+        final List<Long> ids = new ArrayList<>();
+        final List<CompletableFuture<V>> futures = new ArrayList<>();
+    }
+}
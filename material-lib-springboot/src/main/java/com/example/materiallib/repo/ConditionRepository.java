@@ -1,20 +1,27 @@
 package com.example.materiallib.repo;
 
 import com.example.materiallib.model.MaterialCondition;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Repository;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Repository
 public class ConditionRepository {
 
     private final JdbcTemplate jdbc;
+    private final BatchLoader<MaterialCondition> byId;
 
-    public ConditionRepository(JdbcTemplate jdbc) {
+    public ConditionRepository(@Qualifier("readJdbc") JdbcTemplate jdbc, LookupBatching batching) {
         this.jdbc = jdbc;
+        this.byId = batching.loader(this::byIds);
     }
 
     private final RowMapper<MaterialCondition> mapper = (rs, rowNum) -> new MaterialCondition(
@@ -30,17 +37,35 @@ public class ConditionRepository {
             rs.getString("updated_at")
     );
 
+    /** Row mapper for {@code SELECT *} rows, shared with set-based readers in this package. */
+    RowMapper<MaterialCondition> mapper() {
+        return mapper;
+    }
+
+    @Cacheable(EntityCaches.CONDITIONS_BY_MATERIAL)
     public List<MaterialCondition> findByMaterialId(long materialId) {
-        return jdbc.query("SELECT * FROM conditions WHERE material_id = ? ORDER BY is_default DESC, id", mapper, materialId);
+        return List.copyOf(jdbc.query("SELECT * FROM conditions WHERE material_id = ? ORDER BY is_default DESC, id", mapper, materialId));
     }
 
+    @Cacheable(EntityCaches.DEFAULT_CONDITION)
     public Optional<MaterialCondition> findDefaultForMaterial(long materialId) {
         var list = jdbc.query("SELECT * FROM conditions WHERE material_id = ? AND is_default = 1 LIMIT 1", mapper, materialId);
         return list.stream().findFirst();
     }
 
+    /** Concurrent lookups of other ids on a cache miss are read in the same query (see {@link LookupBatching}). */
+    @Cacheable(EntityCaches.CONDITION)
     public Optional<MaterialCondition> findById(long id) {
-        var list = jdbc.query("SELECT * FROM conditions WHERE id = ?", mapper, id);
-        return list.stream().findFirst();
+        return Optional.ofNullable(byId.load(id));
+    }
+
+    private Map<Long, MaterialCondition> byIds(long[] ids) {
+        Map<Long, MaterialCondition> rows = new HashMap<>(ids.length * 2);
+        jdbc.query("SELECT * FROM conditions WHERE id IN (" + BatchLoader.placeholders(ids.length) + ")",
+                (RowCallbackHandler) rs -> {
+                    MaterialCondition c = mapper.mapRow(rs, rs.getRow());
+                    rows.put(c.id(), c);
+                }, BatchLoader.args(ids));
+        return rows;
     }
 }
@@ -0,0 +1,149 @@
+package com.example.materiallib.repo;
+
+import com.example.materiallib.curve.CurveSlice;
+import com.example.materiallib.curve.Lttb;
+import com.example.materiallib.model.CurvePoint;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Writes the points of many curves as one JSON array grouped by curve, from a single query
+ * ordered by the {@code curve_points (curve_id, idx)} primary key.
+ * <p>
+ * Groups follow ascending curve id and are written as rows are read. Points outside a
+ * slice's x-range are skipped; only a slice with {@code maxPoints} holds its clipped points,
+ * as primitive arrays, until its last row, since LTTB needs the whole range to pick from.
+ * <pre>
+ * [{"curveId": 1, "points": [{"curveId": 1, "idx": 0, "x": ..., "y": ..., "z": ...}, ...]},
+ *  {"curveId": 2, "points": [...]}]
+ * </pre>
+ */
+@Repository
+public class CurveBatchRepository {
+
+    /** Curves per request; well below SQLite's bound on bind parameters. */
+    public static final int MAX_CURVES = 1000;
+
+    private final JdbcTemplate jdbc;
+    private final ObjectMapper json;
+
+    public CurveBatchRepository(@Qualifier("readJdbc") JdbcTemplate jdbc, ObjectMapper json) {
+        this.jdbc = jdbc;
+        this.json = json;
+    }
+
+    /** Ids among {@code ids} that have no curve, ascending. */
+    public long[] missing(long[] ids) {
+        if (ids.length == 0) return ids;
+        Set<Long> found = new HashSet<>(jdbc.queryForList(
+                "SELECT id FROM curves WHERE id IN (" + BatchLoader.placeholders(ids.length) + ")",
+                Long.class, BatchLoader.args(ids)));
+        return Arrays.stream(ids).filter(id -> !found.contains(id)).sorted().toArray();
+    }
+
+    /** Slices must name distinct curves; at most {@value #MAX_CURVES}. */
+    public void write(List<CurveSlice> slices, OutputStream out) {
+        write(slices, json, out);
+    }
+
+    /** Writes the document with {@code mapper}, e.g. one for CBOR or Smile. */
+    public void write(List<CurveSlice> slices, ObjectMapper mapper, OutputStream out) {
+        CurveSlice[] sorted = slices.toArray(CurveSlice[]::new);
+        Arrays.sort(sorted, Comparator.comparingLong(CurveSlice::id));
+        long[] ids = Arrays.stream(sorted).mapToLong(CurveSlice::id).toArray();
+
+        jdbc.execute((ConnectionCallback<Void>) con -> {
+            try (JsonGenerator gen = mapper.getFactory().createGenerator(out)) {
+                gen.writeStartArray();
+                if (ids.length > 0) {
+                    try (PreparedStatement ps = con.prepareStatement(
+                            "SELECT curve_id, idx, x, y, z FROM curve_points WHERE curve_id IN ("
+                                    + BatchLoader.placeholders(ids.length) + ") ORDER BY curve_id, idx",
+                            ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+                        for (int i = 0; i < ids.length; i++) ps.setLong(i + 1, ids[i]);
+                        try (ResultSet rs = ps.executeQuery()) {
+                            Buffer buffer = new Buffer();
+                            boolean hasRow = rs.next();
+                            for (CurveSlice slice : sorted) {
+                                gen.writeStartObject();
+                                gen.writeNumberField("curveId", slice.id());
+                                gen.writeArrayFieldStart("points");
+                                buffer.clear();
+                                for (; hasRow && rs.getLong(1) == slice.id(); hasRow = rs.next()) {
+                                    double x = rs.getDouble(3);
+                                    if (!slice.contains(x)) continue;
+                                    double y = rs.getDouble(4);
+                                    double z = rs.getDouble(5);
+                                    Double nz = rs.wasNull() ? null : z;
+                                    if (slice.maxPoints() == null) {
+                                        gen.writeObject(new CurvePoint(slice.id(), rs.getInt(2), x, y, nz));
+                                    } else {
+                                        buffer.add(rs.getInt(2), x, y, nz);
+                                    }
+                                }
+                                if (slice.maxPoints() != null) buffer.writeReduced(slice.id(), slice.maxPoints(), gen);
+                                gen.writeEndArray();
+                                gen.writeEndObject();
+                            }
+                        }
+                    }
+                }
+                gen.writeEndArray();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return null;
+        });
+    }
+
+    /** Clipped points of one curve, reused from curve to curve. */
+    private static final class Buffer {
+        int[] idx = new int[256];
+        double[] x = new double[256];
+        double[] y = new double[256];
+        double[] z = new double[256];
+        int size;
+
+        void clear() {
+            size = 0;
+        }
+
+        void add(int i, double xi, double yi, Double zi) {
+            if (size == idx.length) {
+                int n = size * 2;
+                idx = Arrays.copyOf(idx, n);
+                x = Arrays.copyOf(x, n);
+                y = Arrays.copyOf(y, n);
+                z = Arrays.copyOf(z, n);
+            }
+            idx[size] = i;
+            x[size] = xi;
+            y[size] = yi;
+            z[size] = zi == null ? Double.NaN : zi;
+            size++;
+        }
+
+        void writeReduced(long curveId, int maxPoints, JsonGenerator gen) throws IOException {
+            int[] keep = Lttb.select(Arrays.copyOf(x, size), Arrays.copyOf(y, size), maxPoints);
+            for (int k : keep) {
+                Double zk = Double.isNaN(z[k]) ? null : z[k];
+                gen.writeObject(new CurvePoint(curveId, idx[k], x[k], y[k], zk));
+            }
+        }
+    }
+}
@@ -1,19 +1,31 @@
 package com.example.materiallib.repo;
 
+import com.example.materiallib.curve.PackedBlob;
+import com.example.materiallib.curve.PackedPoints;
 import com.example.materiallib.model.CurvePoint;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Repository;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Repository
 public class CurvePointRepository {
 
     private final JdbcTemplate jdbc;
+    private final BatchLoader<List<CurvePoint>> points;
+    private final BatchLoader<PackedBlob> blobs;
 
-    public CurvePointRepository(JdbcTemplate jdbc) {
+    public CurvePointRepository(@Qualifier("readJdbc") JdbcTemplate jdbc, LookupBatching batching) {
         this.jdbc = jdbc;
+        this.points = batching.loader(this::pointsByCurve);
+        this.blobs = batching.loader(this::blobsByCurve);
     }
 
     private final RowMapper<CurvePoint> mapper = (rs, rowNum) -> new CurvePoint(
@@ -24,7 +36,71 @@ public class CurvePointRepository {
             (Double) rs.getObject("z")
     );
 
+    /** Row mapper for {@code SELECT *} rows, shared with set-based readers in this package. */
+    RowMapper<CurvePoint> mapper() {
+        return mapper;
+    }
+
+    /**
+     * Points of a curve in idx order, unmodifiable. Concurrent calls for other curves are
+     * read in the same query (see {@link LookupBatching}).
+     */
     public List<CurvePoint> pointsForCurve(long curveId) {
-        return jdbc.query("SELECT * FROM curve_points WHERE curve_id = ? ORDER BY idx", mapper, curveId);
+        List<CurvePoint> list = points.load(curveId);
+        return list == null ? List.of() : list;
+    }
+
+    private Map<Long, List<CurvePoint>> pointsByCurve(long[] curveIds) {
+        Map<Long, List<CurvePoint>> rows = new HashMap<>(curveIds.length * 2);
+        jdbc.query("SELECT * FROM curve_points WHERE curve_id IN (" + BatchLoader.placeholders(curveIds.length)
+                        + ") ORDER BY curve_id, idx",
+                (RowCallbackHandler) rs -> {
+                    CurvePoint p = mapper.mapRow(rs, rs.getRow());
+                    rows.computeIfAbsent(p.curveId(), k -> new ArrayList<>()).add(p);
+                }, BatchLoader.args(curveIds));
+        rows.replaceAll((k, v) -> Collections.unmodifiableList(v));
+        return rows;
+    }
+
+    /**
+     * Packed points of a curve. Falls back to packing the rows of {@code curve_points}
+     * when no blob was stored for it, e.g. for databases seeded before blobs existed.
+     * Concurrent calls for other curves read their blobs in the same query.
+     */
+    public PackedBlob packedForCurve(long curveId) {
+        PackedBlob blob = blobs.load(curveId);
+        if (blob != null) return blob;
+        PackedPoints p = packRows(curveId);
+        return new PackedBlob(curveId, p.size(), p.hasZ(), p.toBytes());
+    }
+
+    private Map<Long, PackedBlob> blobsByCurve(long[] curveIds) {
+        Map<Long, PackedBlob> rows = new HashMap<>(curveIds.length * 2);
+        jdbc.query("SELECT curve_id, n, has_z, data FROM curve_point_blobs WHERE curve_id IN ("
+                        + BatchLoader.placeholders(curveIds.length) + ")",
+                (RowCallbackHandler) rs -> {
+                    long id = rs.getLong("curve_id");
+                    rows.put(id, new PackedBlob(id, rs.getInt("n"), rs.getInt("has_z") != 0, rs.getBytes("data")));
+                }, BatchLoader.args(curveIds));
+        return rows;
+    }
+
+    /**
+     * Stored idx of a curve's points, ascending: the idx of the point at each position of
+     * {@link #packedForCurve}, whose blob does not carry them.
+     */
+    public int[] idxForCurve(long curveId) {
+        return jdbc.queryForList("SELECT idx FROM curve_points WHERE curve_id = ? ORDER BY idx", Integer.class, curveId)
+                .stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    public PackedPoints packRows(long curveId) {
+        var builder = new PackedPoints.Builder(curveId);
+        jdbc.query("SELECT x, y, z FROM curve_points WHERE curve_id = ? ORDER BY idx", rs -> {
+            double z = rs.getDouble(3);
+            Double nz = rs.wasNull() ? null : z;
+            builder.add(rs.getDouble(1), rs.getDouble(2), nz);
+        }, curveId);
+        return builder.build();
     }
 }
@@ -1,20 +1,27 @@
 package com.example.materiallib.repo;
 
 import com.example.materiallib.model.Curve;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Repository;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Repository
 public class CurveRepository {
 
     private final JdbcTemplate jdbc;
+    private final BatchLoader<Curve> byId;
 
-    public CurveRepository(JdbcTemplate jdbc) {
+    public CurveRepository(@Qualifier("readJdbc") JdbcTemplate jdbc, LookupBatching batching) {
         this.jdbc = jdbc;
+        this.byId = batching.loader(this::byIds);
     }
 
     private final RowMapper<Curve> mapper = (rs, rowNum) -> new Curve(
@@ -35,12 +42,29 @@ public class CurveRepository {
             rs.getString("updated_at")
     );
 
+    /** Row mapper for {@code SELECT *} rows, shared with set-based readers in this package. */
+    RowMapper<Curve> mapper() {
+        return mapper;
+    }
+
+    /** Concurrent lookups of other ids on a cache miss are read in the same query (see {@link LookupBatching}). */
+    @Cacheable(EntityCaches.CURVE)
     public Optional<Curve> findById(long id) {
-        var list = jdbc.query("SELECT * FROM curves WHERE id = ?", mapper, id);
-        return list.stream().findFirst();
+        return Optional.ofNullable(byId.load(id));
+    }
+
+    private Map<Long, Curve> byIds(long[] ids) {
+        Map<Long, Curve> rows = new HashMap<>(ids.length * 2);
+        jdbc.query("SELECT * FROM curves WHERE id IN (" + BatchLoader.placeholders(ids.length) + ")",
+                (RowCallbackHandler) rs -> {
+                    Curve c = mapper.mapRow(rs, rs.getRow());
+                    rows.put(c.id(), c);
+                }, BatchLoader.args(ids));
+        return rows;
     }
 
+    @Cacheable(EntityCaches.CURVES_BY_CONDITION)
     public List<Curve> findByConditionId(long conditionId) {
-        return jdbc.query("SELECT * FROM curves WHERE condition_id = ? ORDER BY curve_type, id", mapper, conditionId);
+        return List.copyOf(jdbc.query("SELECT * FROM curves WHERE condition_id = ? ORDER BY curve_type, id", mapper, conditionId));
     }
 }
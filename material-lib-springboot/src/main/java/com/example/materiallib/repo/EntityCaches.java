@@ -0,0 +1,77 @@
+package com.example.materiallib.repo;
+
+import com.example.materiallib.DatasetChangedEvent;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Names of the repository caches, and their invalidation when the seeder or an import
+ * writes the tables behind them. Writes arrive as whole-table {@link DatasetChangedEvent}s,
+ * so every cache fed by a touched table is cleared.
+ */
+@Component
+public class EntityCaches {
+
+    public static final String MATERIAL = "material";
+    public static final String CONDITION = "condition";
+    public static final String CONDITIONS_BY_MATERIAL = "conditionsByMaterial";
+    public static final String DEFAULT_CONDITION = "defaultCondition";
+    public static final String CURVE = "curve";
+    public static final String CURVES_BY_CONDITION = "curvesByCondition";
+
+    public static final List<String> ALL = List.of(
+            MATERIAL, CONDITION, CONDITIONS_BY_MATERIAL, DEFAULT_CONDITION, CURVE, CURVES_BY_CONDITION);
+
+    private static final Map<String, List<String>> BY_TABLE = Map.of(
+            "materials", List.of(MATERIAL),
+            "conditions", List.of(CONDITION, CONDITIONS_BY_MATERIAL, DEFAULT_CONDITION),
+            "curves", List.of(CURVE, CURVES_BY_CONDITION));
+
+    private final CacheManager caches;
+
+    public EntityCaches(CacheManager caches) {
+        this.caches = caches;
+    }
+
+    @EventListener
+    public void onDatasetChanged(DatasetChangedEvent event) {
+        BY_TABLE.forEach((table, names) -> {
+            if (!event.touches(table)) return;
+            for (String name : names) {
+                Cache cache = caches.getCache(name);
+                if (cache != null) cache.invalidate();
+            }
+        });
+    }
+
+    /** Per-cache counters since startup; invalidation does not reset them. */
+    public List<Stats> stats() {
+        List<Stats> out = new ArrayList<>(ALL.size());
+        for (String name : ALL) {
+            if (caches.getCache(name) instanceof CaffeineCache cache) {
+                CacheStats s = cache.getNativeCache().stats();
+                out.add(new Stats(name, cache.getNativeCache().estimatedSize(), s.hitCount(), s.missCount(),
+                        s.hitRate(), s.evictionCount(), s.evictionWeight()));
+            }
+        }
+        return out;
+    }
+
+    public record Stats(
+            String cache,
+            long size,
+            long hits,
+            long misses,
+            double hitRate,
+            long evictions,
+            long evictedWeight
+    ) {}
+}
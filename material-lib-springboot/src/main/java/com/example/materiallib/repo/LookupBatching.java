@@ -0,0 +1,45 @@
+package com.example.materiallib.repo;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Settings shared by the {@link BatchLoader}s behind the by-id lookups of the repositories.
+ * <p>
+ * {@code materiallib.batching.concurrency} bounds the queries each loader runs at once
+ * (default: one per core, as the read pool). While they are all busy, lookups for other ids
+ * queue into one batch, sent as a single {@code WHERE id IN (...)} query when a slot frees,
+ * so an idle server answers a lone lookup without delay. {@code materiallib.batching.window}
+ * additionally holds every batch open for that long before it is sent, and
+ * {@code materiallib.batching.max-batch} bounds the ids per query.
+ */
+@Component
+public class LookupBatching {
+
+    private final long windowNanos;
+    private final int maxBatch;
+    private final int concurrency;
+
+    public LookupBatching(@Value("${materiallib.batching.window:0ms}") Duration window,
+                          @Value("${materiallib.batching.max-batch:100}") int maxBatch,
+                          @Value("${materiallib.batching.concurrency:0}") int concurrency) {
+        if (window.isNegative()) throw new IllegalArgumentException("materiallib.batching.window must not be negative");
+        if (maxBatch < 1) throw new IllegalArgumentException("materiallib.batching.max-batch must be at least 1");
+        this.windowNanos = window.toNanos();
+        this.maxBatch = maxBatch;
+        this.concurrency = concurrency > 0 ? concurrency : Runtime.getRuntime().availableProcessors();
+    }
+
+    /** The defaults of a server without {@code materiallib.batching.*} settings. */
+    public static LookupBatching defaults() {
+        return new LookupBatching(Duration.ZERO, 100, 0);
+    }
+
+    <V> BatchLoader<V> loader(Function<long[], Map<Long, V>> bulk) {
+        return new BatchLoader<>(bulk, windowNanos, maxBatch, concurrency);
+    }
+}
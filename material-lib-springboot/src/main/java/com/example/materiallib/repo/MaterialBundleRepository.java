@@ -0,0 +1,197 @@
+package com.example.materiallib.repo;
+
+import com.example.materiallib.model.Curve;
+import com.example.materiallib.model.Material;
+import com.example.materiallib.model.MaterialCondition;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Writes a material with its conditions, properties, curves and curve points as one
+ * nested JSON document, using one set-based query per table instead of one per parent row.
+ * <p>
+ * Properties and points are read through forward-only cursors ordered like their parents
+ * ({@code is_default DESC, id} for conditions, {@code curve_type, id} for curves) and written
+ * as they are read, so neither is materialized.
+ * <pre>
+ * {"material": {...},
+ *  "conditions": [{"condition": {...}, "properties": [...],
+ *                  "curves": [{"curve": {...}, "points": [...]}]}]}
+ * </pre>
+ */
+@Repository
+public class MaterialBundleRepository {
+
+    public enum Part {
+        CONDITIONS, PROPERTIES, CURVES, POINTS;
+
+        /** Parses a comma-separated include list; parts imply the parents they nest in. */
+        public static Set<Part> parse(String include) {
+            EnumSet<Part> parts = EnumSet.noneOf(Part.class);
+            for (String s : include.split(",")) {
+                if (s.isBlank()) continue;
+                try {
+                    parts.add(valueOf(s.trim().toUpperCase(Locale.ROOT)));
+                } catch (IllegalArgumentException e) {
+                    throw new IllegalArgumentException("Unknown include: " + s.trim()
+                            + " (expected one of " + Arrays.toString(values()).toLowerCase(Locale.ROOT) + ")");
+                }
+            }
+            if (parts.contains(POINTS)) parts.add(CURVES);
+            if (parts.contains(PROPERTIES) || parts.contains(CURVES)) parts.add(CONDITIONS);
+            return parts;
+        }
+    }
+
+    private static final String CONDITION_ORDER = "c.is_default DESC, c.id";
+
+    private final JdbcTemplate jdbc;
+    private final ObjectMapper json;
+    private final ConditionRepository conditions;
+    private final PropertyRepository properties;
+    private final CurveRepository curves;
+    private final CurvePointRepository curvePoints;
+
+    public MaterialBundleRepository(@Qualifier("readJdbc") JdbcTemplate jdbc,
+                                    ObjectMapper json,
+                                    ConditionRepository conditions,
+                                    PropertyRepository properties,
+                                    CurveRepository curves,
+                                    CurvePointRepository curvePoints) {
+        this.jdbc = jdbc;
+        this.json = json;
+        this.conditions = conditions;
+        this.properties = properties;
+        this.curves = curves;
+        this.curvePoints = curvePoints;
+    }
+
+    public void write(Material material, Set<Part> include, OutputStream out) {
+        write(material, include, json, out);
+    }
+
+    /** Writes the document with {@code mapper}, e.g. one for CBOR or Smile. */
+    public void write(Material material, Set<Part> include, ObjectMapper mapper, OutputStream out) {
+        // Small parent lists are loaded up front; the cursors below then hold the connection.
+        List<MaterialCondition> conds = include.contains(Part.CONDITIONS)
+                ? conditions.findByMaterialId(material.id())
+                : List.of();
+        List<Curve> curveList = include.contains(Part.CURVES)
+                ? jdbc.query("SELECT cu.* FROM curves cu JOIN conditions c ON c.id = cu.condition_id"
+                        + " WHERE c.material_id = ? ORDER BY " + CONDITION_ORDER + ", cu.curve_type, cu.id",
+                curves.mapper(), material.id())
+                : List.of();
+
+        jdbc.execute((ConnectionCallback<Void>) con -> {
+            try (JsonGenerator gen = mapper.getFactory().createGenerator(out)) {
+                gen.writeStartObject();
+                gen.writeObjectField("material", material);
+                if (include.contains(Part.CONDITIONS)) {
+                    writeConditions(con, material.id(), conds, curveList, include, gen);
+                }
+                gen.writeEndObject();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return null;
+        });
+    }
+
+    private void writeConditions(Connection con, long materialId, List<MaterialCondition> conds, List<Curve> curveList,
+                                 Set<Part> include, JsonGenerator gen) throws SQLException, IOException {
+        try (var props = include.contains(Part.PROPERTIES)
+                ? new Cursor<>(con, "SELECT p.* FROM condition_properties p JOIN conditions c ON c.id = p.condition_id"
+                        + " WHERE c.material_id = ? ORDER BY " + CONDITION_ORDER + ", p.id",
+                materialId, properties.mapper(), "condition_id")
+                : null;
+             var points = include.contains(Part.POINTS)
+                     ? new Cursor<>(con, "SELECT p.* FROM curve_points p"
+                             + " JOIN curves cu ON cu.id = p.curve_id JOIN conditions c ON c.id = cu.condition_id"
+                             + " WHERE c.material_id = ? ORDER BY " + CONDITION_ORDER + ", cu.curve_type, cu.id, p.idx",
+                     materialId, curvePoints.mapper(), "curve_id")
+                     : null) {
+
+            gen.writeArrayFieldStart("conditions");
+            int nextCurve = 0;
+            for (MaterialCondition cond : conds) {
+                gen.writeStartObject();
+                gen.writeObjectField("condition", cond);
+                if (props != null) {
+                    gen.writeArrayFieldStart("properties");
+                    props.writeWhile(cond.id(), gen);
+                    gen.writeEndArray();
+                }
+                if (include.contains(Part.CURVES)) {
+                    gen.writeArrayFieldStart("curves");
+                    while (nextCurve < curveList.size() && curveList.get(nextCurve).conditionId() == cond.id()) {
+                        Curve curve = curveList.get(nextCurve++);
+                        gen.writeStartObject();
+                        gen.writeObjectField("curve", curve);
+                        if (points != null) {
+                            gen.writeArrayFieldStart("points");
+                            points.writeWhile(curve.id(), gen);
+                            gen.writeEndArray();
+                        }
+                        gen.writeEndObject();
+                    }
+                    gen.writeEndArray();
+                }
+                gen.writeEndObject();
+            }
+            gen.writeEndArray();
+        }
+    }
+
+    /** Forward-only cursor over rows grouped by a parent id column. */
+    private static final class Cursor<T> implements AutoCloseable {
+        private final PreparedStatement ps;
+        private final ResultSet rs;
+        private final RowMapper<T> mapper;
+        private final String parentColumn;
+        private boolean hasRow;
+        private int rowNum;
+
+        Cursor(Connection con, String sql, long materialId, RowMapper<T> mapper, String parentColumn) throws SQLException {
+            this.ps = con.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setLong(1, materialId);
+            this.rs = ps.executeQuery();
+            this.mapper = mapper;
+            this.parentColumn = parentColumn;
+            this.hasRow = rs.next();
+        }
+
+        void writeWhile(long parentId, JsonGenerator gen) throws SQLException, IOException {
+            while (hasRow && rs.getLong(parentColumn) == parentId) {
+                gen.writeObject(mapper.mapRow(rs, rowNum++));
+                hasRow = rs.next();
+            }
+        }
+
+        @Override
+        public void close() throws SQLException {
+            try {
+                rs.close();
+            } finally {
+                ps.close();
+            }
+        }
+    }
+}
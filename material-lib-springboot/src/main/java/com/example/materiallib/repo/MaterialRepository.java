@@ -1,20 +1,61 @@
 package com.example.materiallib.repo;
 
 import com.example.materiallib.model.Material;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Repository;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.ToLongFunction;
 
 @Repository
 public class MaterialRepository {
 
+    /** Columns of {@code materials} for {@link #projection}; id and name, the page key, come first. */
+    private static final List<Projection.Column> COLUMNS = List.of(
+            new Projection.Column("id", Projection.Type.LONG),
+            new Projection.Column("name", Projection.Type.STRING),
+            new Projection.Column("category", Projection.Type.STRING),
+            new Projection.Column("family", Projection.Type.STRING),
+            new Projection.Column("grade", Projection.Type.STRING),
+            new Projection.Column("standard_system", Projection.Type.STRING),
+            new Projection.Column("standard_designation", Projection.Type.STRING),
+            new Projection.Column("uns", Projection.Type.STRING),
+            new Projection.Column("en_number", Projection.Type.STRING),
+            new Projection.Column("tags", Projection.Type.STRING),
+            new Projection.Column("notes", Projection.Type.STRING),
+            new Projection.Column("source_type", Projection.Type.STRING),
+            new Projection.Column("source_name", Projection.Type.STRING),
+            new Projection.Column("confidence", Projection.Type.STRING),
+            new Projection.Column("density", Projection.Type.DOUBLE),
+            new Projection.Column("youngs_modulus", Projection.Type.DOUBLE),
+            new Projection.Column("poisson_ratio", Projection.Type.DOUBLE),
+            new Projection.Column("yield_strength", Projection.Type.DOUBLE),
+            new Projection.Column("ultimate_strength", Projection.Type.DOUBLE),
+            new Projection.Column("toughness", Projection.Type.DOUBLE),
+            new Projection.Column("thermal_expansion", Projection.Type.DOUBLE),
+            new Projection.Column("melting_point", Projection.Type.DOUBLE),
+            new Projection.Column("thermal_conductivity", Projection.Type.DOUBLE),
+            new Projection.Column("created_at", Projection.Type.STRING),
+            new Projection.Column("updated_at", Projection.Type.STRING),
+            new Projection.Column("default_condition_id", Projection.Type.NULLABLE_LONG));
+
     private final JdbcTemplate jdbc;
+    private final BatchLoader<Material> byId;
 
-    public MaterialRepository(JdbcTemplate jdbc) {
+    public MaterialRepository(@Qualifier("readJdbc") JdbcTemplate jdbc, LookupBatching batching) {
         this.jdbc = jdbc;
+        this.byId = batching.loader(this::byIds);
     }
 
     private final RowMapper<Material> mapper = (rs, rowNum) -> new Material(
@@ -43,29 +84,123 @@ public class MaterialRepository {
             (Double) rs.getObject("thermal_conductivity"),
             rs.getString("created_at"),
             rs.getString("updated_at"),
-            (Long) rs.getObject("default_condition_id")
+            nullableLong(rs.getLong("default_condition_id"), rs.wasNull())
     );
 
+    private static Long nullableLong(long value, boolean wasNull) {
+        return wasNull ? null : value;
+    }
+
+    /** Row mapper for {@code SELECT *} rows, shared with set-based readers in this package. */
+    RowMapper<Material> mapper() {
+        return mapper;
+    }
+
     public long count() {
         Long c = jdbc.queryForObject("SELECT COUNT(*) FROM materials", Long.class);
         return c == null ? 0 : c;
     }
 
-    public List<Material> findAll(int limit) {
-        return jdbc.query("SELECT * FROM materials ORDER BY name LIMIT ?", mapper, limit);
+    /** Concurrent lookups of other ids on a cache miss are read in the same query (see {@link LookupBatching}). */
+    @Cacheable(EntityCaches.MATERIAL)
+    public Optional<Material> findById(long id) {
+        return Optional.ofNullable(byId.load(id));
     }
 
-    public Optional<Material> findById(long id) {
-        var list = jdbc.query("SELECT * FROM materials WHERE id = ?", mapper, id);
-        return list.stream().findFirst();
+    private Map<Long, Material> byIds(long[] ids) {
+        Map<Long, Material> rows = new HashMap<>(ids.length * 2);
+        jdbc.query("SELECT * FROM materials WHERE id IN (" + BatchLoader.placeholders(ids.length) + ")",
+                (RowCallbackHandler) rs -> {
+                    Material m = mapper.mapRow(rs, rs.getRow());
+                    rows.put(m.id(), m);
+                }, BatchLoader.args(ids));
+        return rows;
+    }
+
+    /**
+     * The given fields of materials (see {@link Projection}); id and name are always included.
+     * Throws IllegalArgumentException for an unknown field.
+     */
+    public Projection projection(String fields) {
+        return Projection.parse(fields, COLUMNS, 2);
+    }
+
+    /** Loads the given materials, returned in the order of {@code ids}. */
+    public List<Material> findByIds(long[] ids) {
+        return findByIds(ids, "*", mapper, Material::id);
+    }
+
+    /** {@link #findByIds(long[])} reading only the fields of {@code projection}. */
+    public List<Projection.Row> findByIds(long[] ids, Projection projection) {
+        return findByIds(ids, projection.selectList(), projection.mapper(), r -> (Long) r.get("id"));
+    }
+
+    private <T> List<T> findByIds(long[] ids, String select, RowMapper<T> rowMapper, ToLongFunction<T> id) {
+        if (ids.length == 0) return Collections.emptyList();
+        Map<Long, Integer> position = new HashMap<>(ids.length * 2);
+        for (int i = 0; i < ids.length; i++) position.put(ids[i], i);
+        String in = BatchLoader.placeholders(ids.length);
+        List<T> list = jdbc.query("SELECT " + select + " FROM materials WHERE id IN (" + in + ")", rowMapper, BatchLoader.args(ids));
+        list.sort(Comparator.comparing(m -> position.get(id.applyAsLong(m))));
+        return list;
+    }
+
+    /**
+     * One keyset page ordered by (name, id): materials after (afterName, afterId), or from the
+     * start when {@code afterName} is null. {@code nameContains} and {@code category} are optional.
+     */
+    public List<Material> page(String nameContains, String category, String afterName, long afterId, int limit) {
+        return page(nameContains, category, afterName, afterId, limit, "*", mapper);
+    }
+
+    /** {@link #page(String, String, String, long, int)} reading only the fields of {@code projection}. */
+    public List<Projection.Row> page(String nameContains, String category, String afterName, long afterId, int limit,
+                                     Projection projection) {
+        return page(nameContains, category, afterName, afterId, limit, projection.selectList(), projection.mapper());
+    }
+
+    private <T> List<T> page(String nameContains, String category, String afterName, long afterId, int limit,
+                             String select, RowMapper<T> rowMapper) {
+        List<Object> args = new ArrayList<>();
+        String sql = listSql(select, nameContains, category, afterName, afterId, args) + " LIMIT ?";
+        args.add(limit);
+        return jdbc.query(sql, rowMapper, args.toArray());
+    }
+
+    /** Every material {@link #page} would return without a limit, read through a forward-only cursor. */
+    public void forEach(String nameContains, String category, String afterName, long afterId, Consumer<? super Material> action) {
+        forEach(nameContains, category, afterName, afterId, "*", mapper, action);
+    }
+
+    /** {@link #forEach(String, String, String, long, Consumer)} reading only the fields of {@code projection}. */
+    public void forEach(String nameContains, String category, String afterName, long afterId, Projection projection,
+                        Consumer<? super Projection.Row> action) {
+        forEach(nameContains, category, afterName, afterId, projection.selectList(), projection.mapper(), action);
     }
 
-    public List<Material> searchByName(String q, int limit) {
-        String like = "%" + q + "%";
-        return jdbc.query("SELECT * FROM materials WHERE name LIKE ? ORDER BY name LIMIT ?", mapper, like, limit);
+    private <T> void forEach(String nameContains, String category, String afterName, long afterId,
+                             String select, RowMapper<T> rowMapper, Consumer<? super T> action) {
+        List<Object> args = new ArrayList<>();
+        String sql = listSql(select, nameContains, category, afterName, afterId, args);
+        jdbc.query(sql, (RowCallbackHandler) rs -> action.accept(rowMapper.mapRow(rs, rs.getRow())), args.toArray());
     }
 
-    public List<Material> byCategory(String category, int limit) {
-        return jdbc.query("SELECT * FROM materials WHERE category = ? ORDER BY name LIMIT ?", mapper, category, limit);
+    private static String listSql(String select, String nameContains, String category, String afterName, long afterId,
+                                  List<Object> args) {
+        StringBuilder sql = new StringBuilder("SELECT " + select + " FROM materials WHERE 1 = 1");
+        if (nameContains != null) {
+            sql.append(" AND name LIKE ?");
+            args.add("%" + nameContains + "%");
+        }
+        if (category != null) {
+            sql.append(" AND category = ?");
+            args.add(category);
+        }
+        if (afterName != null) {
+            sql.append(" AND (name, id) > (?, ?)");
+            args.add(afterName);
+            args.add(afterId);
+        }
+        return sql.append(" ORDER BY name, id").toString();
     }
 }
@@ -0,0 +1,151 @@
+package com.example.materiallib.repo;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.type.WritableTypeId;
+import com.fasterxml.jackson.databind.JsonSerializable;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * A subset of a table's columns, as requested with {@code fields=}: the columns go into the
+ * SELECT list instead of {@code *}, each row is read into a {@link Row} holding only those
+ * values, and the row serializes to a JSON object with only those fields.
+ * <p>
+ * Fields are named as in the full JSON records ({@code youngsModulus}) or as columns
+ * ({@code youngs_modulus}). The table's key columns are always selected, first, since
+ * keyset pages take their cursor from them.
+ */
+public final class Projection {
+
+    public enum Type { LONG, NULLABLE_LONG, DOUBLE, STRING }
+
+    /** A column of a table and the JSON field it maps to. */
+    public record Column(String column, Type type) {
+        public String field() {
+            StringBuilder sb = new StringBuilder(column.length());
+            boolean upper = false;
+            for (char c : column.toCharArray()) {
+                if (c == '_') {
+                    upper = true;
+                } else {
+                    sb.append(upper ? Character.toUpperCase(c) : c);
+                    upper = false;
+                }
+            }
+            return sb.toString();
+        }
+    }
+
+    private final Column[] columns;
+    private final String[] fields;
+    private final String selectList;
+
+    private Projection(List<Column> columns) {
+        this.columns = columns.toArray(Column[]::new);
+        this.fields = columns.stream().map(Column::field).toArray(String[]::new);
+        this.selectList = columns.stream().map(Column::column).collect(Collectors.joining(", "));
+    }
+
+    /**
+     * Parses a comma-separated field list against {@code table}, whose first {@code keys}
+     * columns are always included. Throws IllegalArgumentException for an unknown field.
+     */
+    static Projection parse(String fields, List<Column> table, int keys) {
+        Set<Column> selected = new LinkedHashSet<>(table.subList(0, keys));
+        for (String f : fields.split(",")) {
+            String name = f.trim();
+            if (name.isEmpty()) continue;
+            Column column = table.stream()
+                    .filter(c -> c.field().equals(name) || c.column().equals(name.toLowerCase(Locale.ROOT)))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalArgumentException("Unknown field: " + name + " (expected one of "
+                            + table.stream().map(Column::field).collect(Collectors.joining(", ")) + ")"));
+            selected.add(column);
+        }
+        return new Projection(new ArrayList<>(selected));
+    }
+
+    /** Columns for a SELECT list, in field order. */
+    String selectList() {
+        return selectList;
+    }
+
+    /** Maps rows selected with {@link #selectList()}, reading columns by position. */
+    RowMapper<Row> mapper() {
+        return (rs, rowNum) -> {
+            Object[] values = new Object[columns.length];
+            for (int i = 0; i < columns.length; i++) {
+                values[i] = switch (columns[i].type()) {
+                    case LONG -> rs.getLong(i + 1);
+                    case NULLABLE_LONG -> {
+                        long v = rs.getLong(i + 1);
+                        yield rs.wasNull() ? null : v;
+                    }
+                    case DOUBLE -> {
+                        double v = rs.getDouble(i + 1);
+                        yield rs.wasNull() ? null : v;
+                    }
+                    case STRING -> rs.getString(i + 1);
+                };
+            }
+            return new Row(this, values);
+        };
+    }
+
+    /** One projected row; serializes as a JSON object of the projected fields, in order. */
+    public static final class Row implements JsonSerializable {
+        private final Projection projection;
+        private final Object[] values;
+
+        Row(Projection projection, Object[] values) {
+            this.projection = projection;
+            this.values = values;
+        }
+
+        /** Value of a projected field (a Long, Double or String), or null when absent. */
+        public Object get(String field) {
+            String[] fields = projection.fields;
+            for (int i = 0; i < fields.length; i++) {
+                if (fields[i].equals(field)) return values[i];
+            }
+            return null;
+        }
+
+        @Override
+        public void serialize(JsonGenerator gen, SerializerProvider serializers) throws IOException {
+            gen.writeStartObject(this, values.length);
+            writeFields(gen);
+            gen.writeEndObject();
+        }
+
+        @Override
+        public void serializeWithType(JsonGenerator gen, SerializerProvider serializers, TypeSerializer typeSer)
+                throws IOException {
+            WritableTypeId id = typeSer.writeTypePrefix(gen, typeSer.typeId(this, JsonToken.START_OBJECT));
+            writeFields(gen);
+            typeSer.writeTypeSuffix(gen, id);
+        }
+
+        private void writeFields(JsonGenerator gen) throws IOException {
+            String[] fields = projection.fields;
+            for (int i = 0; i < fields.length; i++) {
+                Object v = values[i];
+                gen.writeFieldName(fields[i]);
+                if (v == null) gen.writeNull();
+                else if (v instanceof Long l) gen.writeNumber(l);
+                else if (v instanceof Double d) gen.writeNumber(d);
+                else gen.writeString((String) v);
+            }
+        }
+    }
+}
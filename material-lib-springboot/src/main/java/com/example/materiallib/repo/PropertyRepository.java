@@ -1,18 +1,42 @@
 package com.example.materiallib.repo;
 
 import com.example.materiallib.model.ConditionProperty;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Repository;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 
 @Repository
 public class PropertyRepository {
 
+    /** Columns of {@code condition_properties} for {@link #projection}; id, the page key, comes first. */
+    private static final List<Projection.Column> COLUMNS = List.of(
+            new Projection.Column("id", Projection.Type.LONG),
+            new Projection.Column("condition_id", Projection.Type.LONG),
+            new Projection.Column("prop_key", Projection.Type.STRING),
+            new Projection.Column("prop_name", Projection.Type.STRING),
+            new Projection.Column("value_num", Projection.Type.DOUBLE),
+            new Projection.Column("value_text", Projection.Type.STRING),
+            new Projection.Column("unit", Projection.Type.STRING),
+            new Projection.Column("basis", Projection.Type.STRING),
+            new Projection.Column("method", Projection.Type.STRING),
+            new Projection.Column("standard", Projection.Type.STRING),
+            new Projection.Column("notes", Projection.Type.STRING),
+            new Projection.Column("temperature_c", Projection.Type.DOUBLE),
+            new Projection.Column("strain_rate", Projection.Type.DOUBLE),
+            new Projection.Column("frequency_hz", Projection.Type.DOUBLE),
+            new Projection.Column("environment", Projection.Type.STRING),
+            new Projection.Column("uncertainty", Projection.Type.DOUBLE),
+            new Projection.Column("confidence", Projection.Type.STRING));
+
     private final JdbcTemplate jdbc;
 
-    public PropertyRepository(JdbcTemplate jdbc) {
+    public PropertyRepository(@Qualifier("readJdbc") JdbcTemplate jdbc) {
         this.jdbc = jdbc;
     }
 
@@ -36,15 +60,75 @@ public class PropertyRepository {
             rs.getString("confidence")
     );
 
-    public List<ConditionProperty> findByConditionId(long conditionId, int limit) {
-        return jdbc.query("SELECT * FROM condition_properties WHERE condition_id = ? ORDER BY id LIMIT ?", mapper, conditionId, limit);
+    /** Row mapper for {@code SELECT *} rows, shared with set-based readers in this package. */
+    RowMapper<ConditionProperty> mapper() {
+        return mapper;
+    }
+
+    /**
+     * One keyset page ordered by id: properties with an id above {@code afterId} (0 for the first
+     * page). {@code conditionId} and {@code propKey} are optional filters.
+     */
+    public List<ConditionProperty> page(Long conditionId, String propKey, long afterId, int limit) {
+        return page(conditionId, propKey, afterId, limit, "*", mapper);
+    }
+
+    /** {@link #page(Long, String, long, int)} reading only the fields of {@code projection}. */
+    public List<Projection.Row> page(Long conditionId, String propKey, long afterId, int limit, Projection projection) {
+        return page(conditionId, propKey, afterId, limit, projection.selectList(), projection.mapper());
+    }
+
+    private <T> List<T> page(Long conditionId, String propKey, long afterId, int limit, String select, RowMapper<T> rowMapper) {
+        List<Object> args = new ArrayList<>();
+        String sql = listSql(select, conditionId, propKey, afterId, args) + " LIMIT ?";
+        args.add(limit);
+        return jdbc.query(sql, rowMapper, args.toArray());
+    }
+
+    /** Every property {@link #page} would return without a limit, read through a forward-only cursor. */
+    public void forEach(Long conditionId, String propKey, long afterId, Consumer<? super ConditionProperty> action) {
+        forEach(conditionId, propKey, afterId, "*", mapper, action);
+    }
+
+    /** {@link #forEach(Long, String, long, Consumer)} reading only the fields of {@code projection}. */
+    public void forEach(Long conditionId, String propKey, long afterId, Projection projection,
+                        Consumer<? super Projection.Row> action) {
+        forEach(conditionId, propKey, afterId, projection.selectList(), projection.mapper(), action);
+    }
+
+    private <T> void forEach(Long conditionId, String propKey, long afterId, String select, RowMapper<T> rowMapper,
+                             Consumer<? super T> action) {
+        List<Object> args = new ArrayList<>();
+        String sql = listSql(select, conditionId, propKey, afterId, args);
+        jdbc.query(sql, (RowCallbackHandler) rs -> action.accept(rowMapper.mapRow(rs, rs.getRow())), args.toArray());
+    }
+
+    /**
+     * The given fields of properties (see {@link Projection}); id is always included.
+     * Throws IllegalArgumentException for an unknown field.
+     */
+    public Projection projection(String fields) {
+        return Projection.parse(fields, COLUMNS, 1);
+    }
+
+    /** Numeric rows of one property of a condition, by temperature (rows without one first). */
+    public List<ConditionProperty> numericByConditionAndKey(long conditionId, String propKey) {
+        return jdbc.query("SELECT * FROM condition_properties WHERE condition_id = ? AND prop_key = ?"
+                        + " AND value_num IS NOT NULL ORDER BY temperature_c, id",
+                mapper, conditionId, propKey);
     }
 
-    public List<ConditionProperty> findByConditionIdAndKey(long conditionId, String propKey, int limit) {
-        return jdbc.query(
-                "SELECT * FROM condition_properties WHERE condition_id = ? AND prop_key = ? ORDER BY id LIMIT ?",
-                mapper,
-                conditionId, propKey, limit
-        );
+    private static String listSql(String select, Long conditionId, String propKey, long afterId, List<Object> args) {
+        StringBuilder sql = new StringBuilder("SELECT " + select + " FROM condition_properties WHERE id > ?");
+        args.add(afterId);
+        if (conditionId != null) {
+            sql.append(" AND condition_id = ?");
+            args.add(conditionId);
+        }
+        if (propKey != null) {
+            sql.append(" AND prop_key = ?");
+            args.add(propKey);
+        }
+        return sql.append(" ORDER BY id").toString();
     }
 }
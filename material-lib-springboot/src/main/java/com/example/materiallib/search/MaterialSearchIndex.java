@@ -0,0 +1,296 @@
+package com.example.materiallib.search;
+
+import com.example.materiallib.DatasetChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * In-process token and trigram index over the searchable material fields.
+ * <p>
+ * Every field is split into lower-case alphanumeric tokens; identifier-like fields
+ * (grade, UNS, EN number, designation) are also indexed in compact form with separators
+ * removed, so "1.4301" and "14301" both match. A query term matches a token exactly,
+ * as a prefix, or - for terms of four characters or more - within one or two edits,
+ * found through a trigram index over the token dictionary. All terms must match;
+ * hits are ranked by the sum of per-term scores weighted by field.
+ */
+@Component
+public class MaterialSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(MaterialSearchIndex.class);
+
+    private static final float EXACT = 1.0f;
+    private static final float PREFIX = 0.7f;
+    private static final float FUZZY = 0.4f;
+    private static final int MAX_FUZZY_CANDIDATES = 64;
+
+    /** Indexed columns with their relevance weight. */
+    private static final String[] FIELDS = {"name", "grade", "uns", "en_number", "standard_designation", "tags"};
+    private static final float[] FIELD_WEIGHTS = {3.0f, 2.5f, 2.5f, 2.5f, 2.0f, 1.0f};
+    private static final boolean[] COMPACT = {false, true, true, true, true, false};
+
+    private final JdbcTemplate jdbc;
+    private volatile Index index;
+
+    public MaterialSearchIndex(@Qualifier("readJdbc") JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    public List<SearchHit> search(String query, int limit) {
+        String[] terms = tokenize(query);
+        if (terms.length == 0) return List.of();
+        return index().search(terms, limit);
+    }
+
+    @EventListener
+    public void onDatasetChanged(DatasetChangedEvent event) {
+        if (!event.touches("materials")) return;
+        synchronized (this) {
+            index = load();
+        }
+    }
+
+    private Index index() {
+        Index i = index;
+        if (i == null) {
+            synchronized (this) {
+                i = index;
+                if (i == null) {
+                    i = load();
+                    index = i;
+                }
+            }
+        }
+        return i;
+    }
+
+    private Index load() {
+        long start = System.nanoTime();
+        var builder = new IndexBuilder();
+        jdbc.query("SELECT id, name, category, " + String.join(", ", Arrays.copyOfRange(FIELDS, 1, FIELDS.length))
+                + " FROM materials ORDER BY name, id", rs -> {
+            String[] values = new String[FIELDS.length];
+            values[0] = rs.getString("name");
+            for (int f = 1; f < FIELDS.length; f++) values[f] = rs.getString(FIELDS[f]);
+            builder.add(rs.getLong("id"), values[0], rs.getString("category"), values[1], values);
+        });
+        Index i = builder.build();
+        log.info("Built material search index: {} rows, {} tokens in {} ms",
+                i.ids.length, i.tokens.length, (System.nanoTime() - start) / 1_000_000);
+        return i;
+    }
+
+    static String[] tokenize(String s) {
+        if (s == null) return new String[0];
+        return Arrays.stream(s.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+"))
+                .filter(t -> !t.isEmpty())
+                .toArray(String[]::new);
+    }
+
+    private static String compact(String s) {
+        return s.toLowerCase(Locale.ROOT).replaceAll("[^\\p{L}\\p{N}]+", "");
+    }
+
+    private static final class IndexBuilder {
+        private final List<Long> ids = new ArrayList<>();
+        private final List<String> names = new ArrayList<>();
+        private final List<String> categories = new ArrayList<>();
+        private final List<String> grades = new ArrayList<>();
+        /** token -> (row -> best field weight) */
+        private final TreeMap<String, Map<Integer, Float>> postings = new TreeMap<>();
+
+        void add(long id, String name, String category, String grade, String[] values) {
+            int row = ids.size();
+            ids.add(id);
+            names.add(name);
+            categories.add(category);
+            grades.add(grade);
+            for (int f = 0; f < values.length; f++) {
+                if (values[f] == null) continue;
+                for (String t : tokenize(values[f])) post(t, row, FIELD_WEIGHTS[f]);
+                if (COMPACT[f]) {
+                    String c = compact(values[f]);
+                    if (!c.isEmpty()) post(c, row, FIELD_WEIGHTS[f]);
+                }
+            }
+        }
+
+        private void post(String token, int row, float weight) {
+            postings.computeIfAbsent(token, k -> new HashMap<>()).merge(row, weight, Math::max);
+        }
+
+        Index build() {
+            int v = postings.size();
+            String[] tokens = new String[v];
+            int[][] rows = new int[v][];
+            float[][] weights = new float[v][];
+            Map<String, List<Integer>> trigramLists = new HashMap<>();
+            int t = 0;
+            for (var e : postings.entrySet()) {
+                tokens[t] = e.getKey();
+                int[] r = e.getValue().keySet().stream().mapToInt(Integer::intValue).sorted().toArray();
+                float[] w = new float[r.length];
+                for (int k = 0; k < r.length; k++) w[k] = e.getValue().get(r[k]);
+                rows[t] = r;
+                weights[t] = w;
+                for (String g : trigrams(tokens[t])) trigramLists.computeIfAbsent(g, k -> new ArrayList<>()).add(t);
+                t++;
+            }
+            Map<String, int[]> trigrams = new HashMap<>(trigramLists.size() * 2);
+            trigramLists.forEach((g, l) -> trigrams.put(g, l.stream().mapToInt(Integer::intValue).toArray()));
+            return new Index(
+                    ids.stream().mapToLong(Long::longValue).toArray(),
+                    names.toArray(String[]::new),
+                    categories.toArray(String[]::new),
+                    grades.toArray(String[]::new),
+                    tokens, rows, weights, trigrams);
+        }
+    }
+
+    private static final class Index {
+        final long[] ids;
+        final String[] names;
+        final String[] categories;
+        final String[] grades;
+        /** Sorted token dictionary; postings are parallel arrays indexed by token position. */
+        final String[] tokens;
+        final int[][] rows;
+        final float[][] weights;
+        final Map<String, int[]> trigrams;
+
+        Index(long[] ids, String[] names, String[] categories, String[] grades,
+              String[] tokens, int[][] rows, float[][] weights, Map<String, int[]> trigrams) {
+            this.ids = ids;
+            this.names = names;
+            this.categories = categories;
+            this.grades = grades;
+            this.tokens = tokens;
+            this.rows = rows;
+            this.weights = weights;
+            this.trigrams = trigrams;
+        }
+
+        List<SearchHit> search(String[] terms, int limit) {
+            Map<Integer, Float> scores = null;
+            for (String term : terms) {
+                Map<Integer, Float> termScores = scoreTerm(term, scores);
+                scores = termScores;
+                if (scores.isEmpty()) return List.of();
+            }
+            return scores.entrySet().stream()
+                    .sorted(Map.Entry.<Integer, Float>comparingByValue().reversed()
+                            .thenComparing(Map.Entry.comparingByKey()))
+                    .limit(limit)
+                    .map(e -> {
+                        int r = e.getKey();
+                        return new SearchHit(ids[r], names[r], categories[r], grades[r],
+                                Math.round(e.getValue() * 1000.0) / 1000.0);
+                    })
+                    .toList();
+        }
+
+        /**
+         * Scores one term against every matching row. When {@code previous} is given, only
+         * rows present there are kept and their earlier score is added, which yields AND semantics.
+         */
+        private Map<Integer, Float> scoreTerm(String term, Map<Integer, Float> previous) {
+            Map<Integer, Float> out = new HashMap<>();
+            int from = lowerBound(term);
+            for (int t = from; t < tokens.length && tokens[t].startsWith(term); t++) {
+                collect(t, tokens[t].length() == term.length() ? EXACT : PREFIX, previous, out);
+            }
+            if (term.length() >= 4) {
+                int maxEdits = term.length() >= 8 ? 2 : 1;
+                for (int t : fuzzyCandidates(term)) {
+                    if (tokens[t].startsWith(term)) continue;
+                    int d = boundedDistance(term, tokens[t], maxEdits);
+                    if (d <= maxEdits) collect(t, FUZZY / d, previous, out);
+                }
+            }
+            if (previous != null) {
+                out.replaceAll((row, s) -> s + previous.get(row));
+            }
+            return out;
+        }
+
+        private void collect(int token, float match, Map<Integer, Float> previous, Map<Integer, Float> out) {
+            int[] r = rows[token];
+            float[] w = weights[token];
+            for (int k = 0; k < r.length; k++) {
+                if (previous != null && !previous.containsKey(r[k])) continue;
+                out.merge(r[k], match * w[k], Math::max);
+            }
+        }
+
+        private int lowerBound(String term) {
+            int i = Arrays.binarySearch(tokens, term);
+            return i >= 0 ? i : -i - 1;
+        }
+
+        /** Tokens sharing the most trigrams with {@code term}, best first. */
+        private int[] fuzzyCandidates(String term) {
+            Map<Integer, Integer> shared = new HashMap<>();
+            for (String g : trigrams(term)) {
+                int[] list = trigrams.get(g);
+                if (list == null) continue;
+                for (int t : list) shared.merge(t, 1, Integer::sum);
+            }
+            int min = Math.max(1, trigrams(term).size() - 3 * (term.length() >= 8 ? 2 : 1));
+            return shared.entrySet().stream()
+                    .filter(e -> e.getValue() >= min)
+                    .filter(e -> Math.abs(tokens[e.getKey()].length() - term.length()) <= 2)
+                    .sorted(Map.Entry.<Integer, Integer>comparingByValue(Comparator.reverseOrder()))
+                    .limit(MAX_FUZZY_CANDIDATES)
+                    .mapToInt(Map.Entry::getKey)
+                    .toArray();
+        }
+    }
+
+    private static List<String> trigrams(String token) {
+        String padded = "$" + token + "$";
+        List<String> out = new ArrayList<>(padded.length());
+        for (int i = 0; i + 3 <= padded.length(); i++) out.add(padded.substring(i, i + 3));
+        return out;
+    }
+
+    /** Optimal string alignment distance, or {@code max + 1} once it is known to exceed {@code max}. */
+    static int boundedDistance(String a, String b, int max) {
+        if (Math.abs(a.length() - b.length()) > max) return max + 1;
+        int[] prev2 = new int[b.length() + 1];
+        int[] prev = new int[b.length() + 1];
+        int[] cur = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) prev[j] = j;
+        for (int i = 1; i <= a.length(); i++) {
+            cur[0] = i;
+            int rowMin = cur[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                int d = Math.min(Math.min(prev[j] + 1, cur[j - 1] + 1), prev[j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    d = Math.min(d, prev2[j - 2] + 1);
+                }
+                cur[j] = d;
+                rowMin = Math.min(rowMin, d);
+            }
+            if (rowMin > max) return max + 1;
+            int[] tmp = prev2;
+            prev2 = prev;
+            prev = cur;
+            cur = tmp;
+        }
+        return prev[b.length()];
+    }
+}
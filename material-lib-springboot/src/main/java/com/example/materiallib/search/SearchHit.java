@@ -0,0 +1,9 @@
+package com.example.materiallib.search;
+
+public record SearchHit(
+        long id,
+        String name,
+        String category,
+        String grade,
+        double score
+) {}
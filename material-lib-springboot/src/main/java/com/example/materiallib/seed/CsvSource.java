@@ -0,0 +1,32 @@
+package com.example.materiallib.seed;
+
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * The dataset CSV dialect: header row, trimmed values, UTF-8.
+ */
+public final class CsvSource {
+
+    private static final CSVFormat FORMAT = CSVFormat.DEFAULT.builder()
+            .setHeader()
+            .setSkipHeaderRecord(true)
+            .setTrim(true)
+            .build();
+
+    private CsvSource() {}
+
+    public static CSVParser open(Resource csv) throws IOException {
+        return open(csv.getInputStream());
+    }
+
+    public static CSVParser open(InputStream in) throws IOException {
+        return FORMAT.parse(new InputStreamReader(in, StandardCharsets.UTF_8));
+    }
+}
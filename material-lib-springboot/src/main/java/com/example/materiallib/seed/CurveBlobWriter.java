@@ -0,0 +1,79 @@
+package com.example.materiallib.seed;
+
+import com.example.materiallib.curve.PackedPoints;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Derives {@code curve_point_blobs} from {@code curve_points} on the writer connection.
+ */
+@Component
+public class CurveBlobWriter {
+
+    private static final String UPSERT = "INSERT OR REPLACE INTO curve_point_blobs(curve_id, n, has_z, data) VALUES (?,?,?,?)";
+
+    private final JdbcTemplate jdbc;
+
+    public CurveBlobWriter(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    /**
+     * Writes one blob per curve from a single ordered scan of {@code curve_points},
+     * so the source does not need to be grouped by curve.
+     *
+     * @return number of curves packed
+     */
+    public int packAll() {
+        List<Object[]> batch = new ArrayList<>(200);
+        var current = new PackedPoints.Builder[1];
+        AtomicInteger curves = new AtomicInteger();
+
+        jdbc.query("SELECT curve_id, x, y, z FROM curve_points ORDER BY curve_id, idx", rs -> {
+            long curveId = rs.getLong(1);
+            if (current[0] == null || current[0].curveId() != curveId) {
+                if (current[0] != null) batch.add(blobRow(current[0].build()));
+                current[0] = new PackedPoints.Builder(curveId);
+                curves.incrementAndGet();
+            }
+            double z = rs.getDouble(4);
+            Double nz = rs.wasNull() ? null : z;
+            current[0].add(rs.getDouble(2), rs.getDouble(3), nz);
+
+            if (batch.size() >= 200) {
+                jdbc.batchUpdate(UPSERT, batch);
+                batch.clear();
+            }
+        });
+        if (current[0] != null) batch.add(blobRow(current[0].build()));
+
+        if (!batch.isEmpty()) jdbc.batchUpdate(UPSERT, batch);
+        return curves.get();
+    }
+
+    /** Repacks the given curves; a curve left without points loses its blob. */
+    public void pack(Collection<Long> curveIds) {
+        for (long curveId : curveIds) {
+            var builder = new PackedPoints.Builder(curveId);
+            jdbc.query("SELECT x, y, z FROM curve_points WHERE curve_id = ? ORDER BY idx", rs -> {
+                double z = rs.getDouble(3);
+                Double nz = rs.wasNull() ? null : z;
+                builder.add(rs.getDouble(1), rs.getDouble(2), nz);
+            }, curveId);
+            if (builder.size() == 0) {
+                jdbc.update("DELETE FROM curve_point_blobs WHERE curve_id = ?", curveId);
+            } else {
+                jdbc.update(UPSERT, blobRow(builder.build()));
+            }
+        }
+    }
+
+    private static Object[] blobRow(PackedPoints p) {
+        return new Object[]{p.curveId(), p.size(), p.hasZ() ? 1 : 0, p.toBytes()};
+    }
+}
@@ -0,0 +1,256 @@
+package com.example.materiallib.seed;
+
+import com.example.materiallib.DatasetChangedEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.RuntimeJsonMappingException;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Streams CSV or NDJSON rows into one table using the {@link SeedTable} column mappings.
+ * <p>
+ * Rows are upserted in batches of {@link SeedTable#batchSize()}, each in its own transaction,
+ * so memory stays bounded by one batch whatever the upload size. Tables without a row key
+ * ({@code condition_properties}) are replaced per group instead: the first batch bringing
+ * rows of a {@code condition_id} deletes that condition's stored rows. Malformed input or a
+ * failing row aborts the import with an {@link ImportException}; batches committed before it
+ * are kept and reported.
+ */
+@Component
+public class DatasetImporter {
+
+    private static final Logger log = LoggerFactory.getLogger(DatasetImporter.class);
+
+    private static final long PROGRESS_EVERY = 100_000;
+
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate tx;
+    private final ObjectMapper json;
+    private final CurveBlobWriter blobs;
+    private final ApplicationEventPublisher events;
+
+    public DatasetImporter(JdbcTemplate jdbc,
+                           PlatformTransactionManager txManager,
+                           ObjectMapper json,
+                           CurveBlobWriter blobs,
+                           ApplicationEventPublisher events) {
+        this.jdbc = jdbc;
+        this.tx = new TransactionTemplate(txManager);
+        this.json = json;
+        this.blobs = blobs;
+        this.events = events;
+    }
+
+    public ImportReport importCsv(SeedTable table, InputStream in) throws IOException {
+        CSVParser records;
+        try {
+            records = CsvSource.open(in);
+        } catch (IOException | IllegalArgumentException e) {
+            throw new ImportException("Malformed CSV header: " + e.getMessage(), 0, e);
+        }
+        try (records) {
+            Iterator<CSVRecord> it = records.iterator();
+            return importRows(table, "csv", new Iterator<>() {
+                public boolean hasNext() {
+                    return it.hasNext();
+                }
+
+                public Function<String, String> next() {
+                    CSVRecord r = it.next();
+                    return name -> r.isMapped(name) ? r.get(name) : null;
+                }
+            });
+        }
+    }
+
+    public ImportReport importNdjson(SeedTable table, InputStream in) throws IOException {
+        MappingIterator<Map<String, Object>> values;
+        try {
+            values = json.readerForMapOf(Object.class).readValues(in);
+        } catch (JsonProcessingException e) {
+            throw new ImportException("Malformed NDJSON: " + e.getOriginalMessage(), 0, e);
+        }
+        try (MappingIterator<Map<String, Object>> it = values) {
+            return importRows(table, "ndjson", new Iterator<>() {
+                public boolean hasNext() {
+                    try {
+                        return it.hasNext();
+                    } catch (RuntimeException e) {
+                        throw malformedJson(e);
+                    }
+                }
+
+                public Function<String, String> next() {
+                    Map<String, Object> m;
+                    try {
+                        m = it.next();
+                    } catch (RuntimeException e) {
+                        throw malformedJson(e);
+                    }
+                    return name -> {
+                        Object v = m.get(name);
+                        return v == null ? null : v.toString();
+                    };
+                }
+            });
+        }
+    }
+
+    /**
+     * MappingIterator reports a syntax error as a plain RuntimeException around the
+     * JsonProcessingException; unwrap it so it is told apart from other failures.
+     */
+    private static RuntimeException malformedJson(RuntimeException e) {
+        if (e.getCause() instanceof JsonProcessingException j) return new UncheckedIOException(j);
+        return e;
+    }
+
+    /**
+     * @throws ImportException if the input is malformed, or a row cannot be converted or
+     *                         violates a constraint
+     */
+    private ImportReport importRows(SeedTable table, String format, Iterator<Function<String, String>> rows) {
+        long start = System.nanoTime();
+        String sql = table.upsertSql();
+        List<Object[]> batch = new ArrayList<>(table.batchSize());
+        // groups already cleared by this import, so that one spanning two batches keeps its first part
+        Set<Long> replaced = new HashSet<>();
+        long read = 0;
+        long committed = 0;
+        int batches = 0;
+        try {
+            while (rows.hasNext()) {
+                Function<String, String> row = rows.next();
+                read++;
+                try {
+                    batch.add(table.convert(row));
+                } catch (RuntimeException e) {
+                    throw new IllegalArgumentException("Row " + read + ": " + e.getMessage(), e);
+                }
+                if (batch.size() >= table.batchSize()) {
+                    flush(table, sql, batch, replaced);
+                    committed += batch.size();
+                    batches++;
+                    batch.clear();
+                    if (committed % PROGRESS_EVERY < table.batchSize()) {
+                        log.info("Importing {}: {} rows committed", table.table(), committed);
+                    }
+                }
+            }
+            if (!batch.isEmpty()) {
+                flush(table, sql, batch, replaced);
+                committed += batch.size();
+                batches++;
+            }
+        } catch (DataAccessException e) {
+            throw new ImportException("Batch ending at row " + read + " rejected: "
+                    + e.getMostSpecificCause().getMessage(), committed, e);
+        } catch (UncheckedIOException | RuntimeJsonMappingException e) {
+            // commons-csv and Jackson report syntax errors while iterating
+            String message = e.getCause() instanceof JsonProcessingException j ? j.getOriginalMessage() : e.getMessage();
+            throw new ImportException("Malformed " + format.toUpperCase(Locale.ROOT) + " after row " + read + ": "
+                    + message, committed, e);
+        } catch (IllegalArgumentException e) {
+            throw new ImportException(e.getMessage(), committed, e);
+        } finally {
+            if (committed > 0) events.publishEvent(new DatasetChangedEvent("import", changedTables(table)));
+        }
+
+        long nanos = System.nanoTime() - start;
+        ImportReport report = new ImportReport(table.table(), format, committed, batches, nanos / 1_000_000,
+                nanos == 0 ? committed : committed * 1_000_000_000L / nanos);
+        log.info("Imported {} rows into {} ({}) in {} ms ({} rows/s)",
+                report.rows(), report.table(), format, report.millis(), report.rowsPerSecond());
+        return report;
+    }
+
+    private void flush(SeedTable table, String sql, List<Object[]> batch, Set<Long> replaced) {
+        tx.executeWithoutResult(status -> {
+            if (table == SeedTable.MATERIALS) dropMissingDefaultConditions(batch);
+            if (table.replacesGroups()) clearGroups(table, batch, replaced);
+            jdbc.batchUpdate(sql, batch);
+            if (table == SeedTable.CONDITIONS) linkDefaultConditions(batch);
+            if (table == SeedTable.CURVE_POINTS) {
+                Set<Long> curveIds = new LinkedHashSet<>();
+                for (Object[] row : batch) curveIds.add((Long) row[0]);
+                blobs.pack(curveIds);
+            }
+        });
+    }
+
+    /**
+     * Deletes the stored rows of each group first seen in {@code batch}, in the batch's
+     * transaction: if the batch is rejected, its groups keep their old rows.
+     */
+    private void clearGroups(SeedTable table, List<Object[]> batch, Set<Long> replaced) {
+        int col = table.columns().indexOf(table.keyColumn());
+        List<Object[]> keys = new ArrayList<>();
+        for (Object[] row : batch) {
+            Long key = (Long) row[col];
+            if (replaced.add(key)) keys.add(new Object[]{key});
+        }
+        if (!keys.isEmpty()) jdbc.batchUpdate(table.deleteByKeySql(), keys);
+    }
+
+    /**
+     * Materials may be imported before their conditions: a default_condition_id that does not
+     * exist yet is left NULL and filled in by {@link #linkDefaultConditions} later.
+     */
+    private void dropMissingDefaultConditions(List<Object[]> batch) {
+        int col = SeedTable.MATERIALS.columns().indexOf("default_condition_id");
+        Set<Long> referenced = new LinkedHashSet<>();
+        for (Object[] row : batch) {
+            if (row[col] != null) referenced.add((Long) row[col]);
+        }
+        if (referenced.isEmpty()) return;
+        Set<Long> existing = new LinkedHashSet<>(jdbc.queryForList(
+                "SELECT id FROM conditions WHERE id IN (" + "?,".repeat(referenced.size() - 1) + "?)",
+                Long.class, referenced.toArray()));
+        for (Object[] row : batch) {
+            if (row[col] != null && !existing.contains((Long) row[col])) row[col] = null;
+        }
+    }
+
+    private void linkDefaultConditions(List<Object[]> batch) {
+        int isDefault = SeedTable.CONDITIONS.columns().indexOf("is_default");
+        List<Object[]> links = new ArrayList<>();
+        for (Object[] row : batch) {
+            if (Integer.valueOf(1).equals(row[isDefault])) links.add(new Object[]{row[0], row[1]});
+        }
+        if (!links.isEmpty()) {
+            jdbc.batchUpdate("UPDATE materials SET default_condition_id = ? WHERE id = ? AND default_condition_id IS NULL", links);
+        }
+    }
+
+    private static Set<String> changedTables(SeedTable table) {
+        return switch (table) {
+            case CURVE_POINTS -> Set.of(table.table(), "curve_point_blobs");
+            // importing a default condition links it to its material
+            case CONDITIONS -> Set.of(table.table(), SeedTable.MATERIALS.table());
+            default -> Set.of(table.table());
+        };
+    }
+}
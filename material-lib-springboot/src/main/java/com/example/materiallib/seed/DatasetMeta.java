@@ -0,0 +1,86 @@
+package com.example.materiallib.seed;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Access to the {@code dataset_meta} and {@code dataset_row_hashes} bookkeeping tables,
+ * through the writer connection so reads see the seeder's own uncommitted writes.
+ */
+@Component
+public class DatasetMeta {
+
+    public static final String SCHEMA_VERSION = "schema_version";
+    public static final String DATASET_VERSION = "dataset_version";
+
+    public static final String CREATE_META_TABLE = "CREATE TABLE IF NOT EXISTS dataset_meta (key TEXT PRIMARY KEY, value TEXT)";
+
+    private final JdbcTemplate jdbc;
+
+    public DatasetMeta(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    public Optional<String> get(String key) {
+        return jdbc.query("SELECT value FROM dataset_meta WHERE key = ?", (rs, rowNum) -> rs.getString(1), key)
+                .stream().findFirst();
+    }
+
+    /** All entries whose key starts with {@code prefix}. */
+    public Map<String, String> entries(String prefix) {
+        Map<String, String> out = new HashMap<>();
+        jdbc.query("SELECT key, value FROM dataset_meta WHERE substr(key, 1, ?) = ?",
+                rs -> {
+                    out.put(rs.getString(1), rs.getString(2));
+                },
+                prefix.length(), prefix);
+        return out;
+    }
+
+    public void put(String key, String value) {
+        jdbc.update("INSERT INTO dataset_meta(key, value) VALUES (?, ?) ON CONFLICT(key) DO UPDATE SET value = excluded.value",
+                key, value);
+    }
+
+    /** Stored row hashes of one table, by row (or group) key. */
+    public Map<Long, Long> rowHashes(String table) {
+        Map<Long, Long> out = new HashMap<>();
+        jdbc.query("SELECT row_key, hash FROM dataset_row_hashes WHERE tbl = ?",
+                rs -> {
+                    out.put(rs.getLong(1), rs.getLong(2));
+                },
+                table);
+        return out;
+    }
+
+    public void saveRowHashes(String table, Map<Long, Long> upserts, Collection<Long> deletes) {
+        List<Object[]> batch = new ArrayList<>(1000);
+        for (Long key : deletes) {
+            batch.add(new Object[]{table, key});
+            if (batch.size() >= 1000) {
+                jdbc.batchUpdate("DELETE FROM dataset_row_hashes WHERE tbl = ? AND row_key = ?", batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) jdbc.batchUpdate("DELETE FROM dataset_row_hashes WHERE tbl = ? AND row_key = ?", batch);
+        batch.clear();
+
+        String upsert = "INSERT INTO dataset_row_hashes(tbl, row_key, hash) VALUES (?,?,?)"
+                + " ON CONFLICT(tbl, row_key) DO UPDATE SET hash = excluded.hash";
+        for (var e : upserts.entrySet()) {
+            batch.add(new Object[]{table, e.getKey(), e.getValue()});
+            if (batch.size() >= 1000) {
+                jdbc.batchUpdate(upsert, batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) jdbc.batchUpdate(upsert, batch);
+    }
+}
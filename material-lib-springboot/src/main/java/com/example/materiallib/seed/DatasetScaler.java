@@ -0,0 +1,456 @@
+package com.example.materiallib.seed;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVPrinter;
+import org.apache.commons.csv.CSVRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+/**
+ * Generates a synthetic dataset {@code scale} times the size of a template dataset (by default
+ * the bundled CSVs), with the same files and columns, so it can be loaded through
+ * {@code materiallib.data.location} or {@code POST /api/import}.
+ * <p>
+ * Every template material is emitted {@code scale} times. Copy 0 is the template itself; copy
+ * {@code k} shifts every id and foreign key by {@code k} times the template's largest id of the
+ * referenced table, so materials, conditions, properties, curves and points stay consistent,
+ * and varies the values around the template's:
+ * <ul>
+ *   <li>each copy draws log-normal factors for density, stiffness, strength and thermal
+ *   behaviour; material columns, the properties in the same group and the curve shapes that
+ *   follow them (S-N and stress-strain with strength, k(T) with conductivity) are scaled
+ *   together, so the copies keep the template's correlations and its category mix;</li>
+ *   <li>other numeric properties get an independent small factor; compositions are perturbed
+ *   and rebalanced to 100 wt%;</li>
+ *   <li>curves keep their x values and are scaled in y, and with {@code pointFactor > 1} each
+ *   segment is subdivided (log-log for x spanning two decades or more, as for S-N and creep),
+ *   which multiplies the point count without changing the shape.</li>
+ * </ul>
+ * Only the templates are held in memory; each output file is written in one streaming pass
+ * and the per-copy factors are derived from {@code seed} and the material id, so the output
+ * is reproducible and the size is bounded by the disk only.
+ * <p>
+ * Run with {@code mvn -q exec:java -Dexec.mainClass=com.example.materiallib.seed.DatasetScaler
+ * -Dexec.args="<outDir> <scale> [pointFactor] [seed]"}.
+ */
+public class DatasetScaler {
+
+    private static final Logger log = LoggerFactory.getLogger(DatasetScaler.class);
+
+    private static final CSVFormat OUT = CSVFormat.DEFAULT.builder().setRecordSeparator('\n').build();
+    private static final int WRITE_BUFFER = 1 << 20;
+
+    private static final Set<String> STRENGTH_KEYS = Set.of("compressive_strength", "endurance_limit",
+            "hardness_vickers", "hollomon_K", "fracture_toughness_KIC", "deltaK_threshold");
+    private static final Set<String> STIFFNESS_KEYS = Set.of("shear_modulus", "bulk_modulus", "relaxation_modulus");
+    private static final Set<String> THERMAL_KEYS = Set.of("thermal_diffusivity");
+    /** Numeric properties that are categories or conditions of a test rather than measurements. */
+    private static final Set<String> FIXED_KEYS = Set.of("test_temperature", "machinability_rating", "weldability_rating");
+    private static final String COMPOSITION_KEY = "composition_wt_percent";
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private final ResourceLoader resources;
+    private final String templateLocation;
+    private final int scale;
+    private final int pointFactor;
+    private final long seed;
+
+    public DatasetScaler(ResourceLoader resources, String templateLocation, int scale, int pointFactor, long seed) {
+        if (scale < 1) throw new IllegalArgumentException("scale must be at least 1: " + scale);
+        if (pointFactor < 1) throw new IllegalArgumentException("pointFactor must be at least 1: " + pointFactor);
+        this.resources = resources;
+        this.templateLocation = templateLocation.endsWith("/") ? templateLocation : templateLocation + "/";
+        this.scale = scale;
+        this.pointFactor = pointFactor;
+        this.seed = seed;
+    }
+
+    /** Scaler over the bundled CSVs. */
+    public DatasetScaler(int scale, int pointFactor, long seed) {
+        this(new DefaultResourceLoader(), "classpath:data/", scale, pointFactor, seed);
+    }
+
+    public record Summary(Map<SeedTable, Long> rows, long millis) {}
+
+    /** Writes the five CSVs into {@code dir}, replacing existing files. */
+    public Summary write(Path dir) throws IOException {
+        long start = System.nanoTime();
+        Files.createDirectories(dir);
+        Templates t = Templates.load(resources, templateLocation);
+        Map<SeedTable, Long> rows = new EnumMap<>(SeedTable.class);
+
+        rows.put(SeedTable.MATERIALS, writeFile(dir, SeedTable.MATERIALS, t.materials.header, out -> {
+            long n = 0;
+            for (int copy = 0; copy < scale; copy++) {
+                for (String[] m : t.materials.rows) {
+                    out.printRecord((Object[]) material(t, m, copy));
+                    n++;
+                }
+            }
+            return n;
+        }));
+        rows.put(SeedTable.CONDITIONS, writeFile(dir, SeedTable.CONDITIONS, t.conditions.header, out -> {
+            long n = 0;
+            for (int copy = 0; copy < scale; copy++) {
+                for (String[] c : t.conditions.rows) {
+                    String[] row = c.clone();
+                    shiftId(row, t.conditions.col("id"), t.maxConditionId, copy);
+                    shiftId(row, t.conditions.col("material_id"), t.maxMaterialId, copy);
+                    out.printRecord((Object[]) row);
+                    n++;
+                }
+            }
+            return n;
+        }));
+        rows.put(SeedTable.CONDITION_PROPERTIES, writeFile(dir, SeedTable.CONDITION_PROPERTIES, t.properties.header, out -> {
+            long n = 0;
+            for (int copy = 0; copy < scale; copy++) {
+                for (String[] c : t.conditions.rows) {
+                    long conditionId = Long.parseLong(c[t.conditions.col("id")]);
+                    Variant v = variant(Long.parseLong(c[t.conditions.col("material_id")]), copy);
+                    SplittableRandom noise = random(conditionId, copy, 1);
+                    for (String[] p : t.propertiesByCondition.getOrDefault(conditionId, List.of())) {
+                        out.printRecord((Object[]) property(t, p, copy, v, noise));
+                        n++;
+                    }
+                }
+            }
+            return n;
+        }));
+        rows.put(SeedTable.CURVES, writeFile(dir, SeedTable.CURVES, t.curves.header, out -> {
+            long n = 0;
+            for (int copy = 0; copy < scale; copy++) {
+                for (String[] c : t.curves.rows) {
+                    String[] row = c.clone();
+                    shiftId(row, t.curves.col("id"), t.maxCurveId, copy);
+                    shiftId(row, t.curves.col("condition_id"), t.maxConditionId, copy);
+                    out.printRecord((Object[]) row);
+                    n++;
+                }
+            }
+            return n;
+        }));
+        rows.put(SeedTable.CURVE_POINTS, writeFile(dir, SeedTable.CURVE_POINTS, List.of("curve_id", "idx", "x", "y", "z"), out -> {
+            long n = 0;
+            for (int copy = 0; copy < scale; copy++) {
+                for (String[] c : t.curves.rows) {
+                    long curveId = Long.parseLong(c[t.curves.col("id")]);
+                    TemplateCurve curve = t.points.get(curveId);
+                    if (curve == null) continue;
+                    long materialId = t.materialOfCondition.get(Long.parseLong(c[t.curves.col("condition_id")]));
+                    double factor = copy == 0 ? 1 : curveFactor(c[t.curves.col("curve_type")], variant(materialId, copy),
+                            random(curveId, copy, 2));
+                    n += points(out, curve, curveId + copy * t.maxCurveId, factor);
+                }
+            }
+            return n;
+        }));
+
+        Summary summary = new Summary(rows, (System.nanoTime() - start) / 1_000_000);
+        log.info("Wrote dataset x{} (points x{}) to {} in {} ms: {}", scale, pointFactor, dir, summary.millis(), rows);
+        return summary;
+    }
+
+    private String[] material(Templates t, String[] m, int copy) {
+        String[] row = m.clone();
+        Table mt = t.materials;
+        long templateId = Long.parseLong(m[mt.col("id")]);
+        shiftId(row, mt.col("id"), t.maxMaterialId, copy);
+        shiftId(row, mt.col("default_condition_id"), t.maxConditionId, copy);
+        if (copy == 0) return row;
+
+        row[mt.col("name")] = renamed(m[mt.col("name")], row[mt.col("id")]);
+        Variant v = variant(templateId, copy);
+        scale(row, mt.col("density"), v.density);
+        scale(row, mt.col("youngs_modulus"), v.stiffness);
+        scale(row, mt.col("yield_strength"), v.strength);
+        scale(row, mt.col("ultimate_strength"), v.strength);
+        scale(row, mt.col("toughness"), v.toughness);
+        scale(row, mt.col("thermal_expansion"), v.expansion);
+        scale(row, mt.col("melting_point"), v.melting);
+        scale(row, mt.col("thermal_conductivity"), v.conductivity);
+        int poisson = mt.col("poisson_ratio");
+        if (!row[poisson].isEmpty()) {
+            double nu = Double.parseDouble(row[poisson]) + v.poissonShift;
+            row[poisson] = Double.toString(Math.max(0.01, Math.min(0.49, nu)));
+        }
+        return row;
+    }
+
+    private String[] property(Templates t, String[] p, int copy, Variant v, SplittableRandom noise) {
+        String[] row = p.clone();
+        Table pt = t.properties;
+        shiftId(row, pt.col("condition_id"), t.maxConditionId, copy);
+        if (copy == 0) return row;
+
+        String key = p[pt.col("prop_key")];
+        if (COMPOSITION_KEY.equals(key)) {
+            row[pt.col("value_text")] = composition(p[pt.col("value_text")], noise);
+            return row;
+        }
+        double own = logNormal(noise, 0.03);
+        if (FIXED_KEYS.contains(key)) return row;
+        double group = STRENGTH_KEYS.contains(key) ? v.strength
+                : STIFFNESS_KEYS.contains(key) ? v.stiffness
+                : THERMAL_KEYS.contains(key) ? v.conductivity
+                : logNormal(noise, 0.05);
+        scale(row, pt.col("value_num"), group * own);
+        return row;
+    }
+
+    /** Perturbs the minor constituents and gives the largest one the balance. */
+    static String composition(String text, SplittableRandom noise) {
+        if (text == null || text.isBlank()) return text;
+        Map<String, Double> wt;
+        try {
+            wt = JSON.readValue(text, new TypeReference<LinkedHashMap<String, Double>>() {});
+        } catch (JsonProcessingException e) {
+            return text;
+        }
+        if (wt.isEmpty()) return text;
+        String balance = null;
+        for (var e : wt.entrySet()) {
+            if (balance == null || e.getValue() > wt.get(balance)) balance = e.getKey();
+        }
+        double total = wt.values().stream().mapToDouble(Double::doubleValue).sum();
+        double minor = 0;
+        for (var e : wt.entrySet()) {
+            if (e.getKey().equals(balance)) continue;
+            double value = round3(e.getValue() * logNormal(noise, 0.1));
+            e.setValue(value);
+            minor += value;
+        }
+        if (minor < total) wt.put(balance, round3(total - minor));
+        try {
+            return JSON.writeValueAsString(wt);
+        } catch (JsonProcessingException e) {
+            return text;
+        }
+    }
+
+    private static double curveFactor(String curveType, Variant v, SplittableRandom noise) {
+        double own = logNormal(noise, 0.02);
+        return switch (curveType == null ? "" : curveType) {
+            case "sn", "stress_strain" -> v.strength * own;
+            case "k_vs_T" -> v.conductivity * own;
+            default -> logNormal(noise, 0.1);
+        };
+    }
+
+    /** Writes one curve, {@code pointFactor} points per template segment; returns the point count. */
+    private long points(CSVPrinter out, TemplateCurve c, long curveId, double factor) throws IOException {
+        int n = c.x.length;
+        boolean logX = c.logX();
+        boolean logY = logX && c.positiveY();
+        int idx = 0;
+        for (int i = 0; i < n; i++) {
+            int steps = i == n - 1 ? 1 : pointFactor;
+            for (int s = 0; s < steps; s++) {
+                double f = (double) s / pointFactor;
+                double x = s == 0 ? c.x[i] : lerp(c.x[i], c.x[i + 1], f, logX);
+                double y = s == 0 ? c.y[i] : lerp(c.y[i], c.y[i + 1], f, logY);
+                Double z = c.z == null || Double.isNaN(c.z[i]) ? null
+                        : s == 0 || Double.isNaN(c.z[i + 1]) ? c.z[i] : lerp(c.z[i], c.z[i + 1], f, false);
+                out.printRecord(curveId, idx++, x, y * factor, z == null ? null : z * factor);
+            }
+        }
+        return idx;
+    }
+
+    private static double lerp(double a, double b, double f, boolean log) {
+        return log ? Math.exp(Math.log(a) + f * (Math.log(b) - Math.log(a))) : a + f * (b - a);
+    }
+
+    /** Factors shared by everything belonging to one copy of a template material. */
+    private record Variant(double density, double stiffness, double strength, double toughness,
+                           double expansion, double melting, double conductivity, double poissonShift) {}
+
+    private Variant variant(long templateMaterialId, int copy) {
+        SplittableRandom r = random(templateMaterialId, copy, 0);
+        return new Variant(logNormal(r, 0.03), logNormal(r, 0.06), logNormal(r, 0.10), logNormal(r, 0.15),
+                logNormal(r, 0.05), logNormal(r, 0.02), logNormal(r, 0.10), r.nextGaussian() * 0.01);
+    }
+
+    private SplittableRandom random(long templateId, int copy, int stream) {
+        return new SplittableRandom(seed ^ (templateId * 0x9E3779B97F4A7C15L) ^ ((long) copy << 32) ^ stream);
+    }
+
+    private static double logNormal(SplittableRandom r, double sigma) {
+        return Math.exp(r.nextGaussian() * sigma);
+    }
+
+    private static void shiftId(String[] row, int col, long max, int copy) {
+        if (copy == 0 || row[col].isEmpty()) return;
+        row[col] = Long.toString(Long.parseLong(row[col]) + copy * max);
+    }
+
+    private static void scale(String[] row, int col, double factor) {
+        if (row[col].isEmpty()) return;
+        try {
+            row[col] = Double.toString(Double.parseDouble(row[col]) * factor);
+        } catch (NumberFormatException ignored) {
+            // non-numeric text is kept as is
+        }
+    }
+
+    /** Replaces the template's trailing {@code [0001]} with the new id, or appends it. */
+    private static String renamed(String name, String id) {
+        int open = name.lastIndexOf(" [");
+        String base = open >= 0 && name.endsWith("]") ? name.substring(0, open) : name;
+        return base + " [" + id + "]";
+    }
+
+    private static double round3(double v) {
+        return Math.round(v * 1000) / 1000.0;
+    }
+
+    private interface Rows {
+        long write(CSVPrinter out) throws IOException;
+    }
+
+    private static long writeFile(Path dir, SeedTable table, List<String> header, Rows rows) throws IOException {
+        long start = System.nanoTime();
+        Path file = dir.resolve(table.fileName());
+        try (BufferedWriter w = new BufferedWriter(
+                new OutputStreamWriter(Files.newOutputStream(file), StandardCharsets.UTF_8), WRITE_BUFFER);
+             CSVPrinter out = new CSVPrinter(w, OUT)) {
+            out.printRecord(header);
+            long n = rows.write(out);
+            log.info("Wrote {}: {} rows in {} ms", file.getFileName(), n, (System.nanoTime() - start) / 1_000_000);
+            return n;
+        }
+    }
+
+    /** One template CSV held as raw rows. */
+    private record Table(List<String> header, List<String[]> rows) {
+        int col(String name) {
+            int i = header.indexOf(name);
+            if (i < 0) throw new IllegalStateException("Template has no column " + name);
+            return i;
+        }
+
+        static Table read(Resource csv) throws IOException {
+            try (CSVParser records = CsvSource.open(csv)) {
+                List<String[]> rows = new ArrayList<>();
+                for (CSVRecord r : records) rows.add(r.values());
+                return new Table(List.copyOf(records.getHeaderNames()), rows);
+            }
+        }
+    }
+
+    private record TemplateCurve(double[] x, double[] y, double[] z) {
+        boolean logX() {
+            double min = Double.POSITIVE_INFINITY, max = 0;
+            for (double v : x) {
+                if (v <= 0) return false;
+                min = Math.min(min, v);
+                max = Math.max(max, v);
+            }
+            return max >= 100 * min;
+        }
+
+        boolean positiveY() {
+            for (double v : y) if (v <= 0) return false;
+            return true;
+        }
+    }
+
+    private static final class Templates {
+        Table materials;
+        Table conditions;
+        Table properties;
+        Table curves;
+        final Map<Long, List<String[]>> propertiesByCondition = new HashMap<>();
+        final Map<Long, Long> materialOfCondition = new HashMap<>();
+        final Map<Long, TemplateCurve> points = new HashMap<>();
+        long maxMaterialId;
+        long maxConditionId;
+        long maxCurveId;
+
+        static Templates load(ResourceLoader resources, String location) throws IOException {
+            Templates t = new Templates();
+            t.materials = Table.read(resources.getResource(location + SeedTable.MATERIALS.fileName()));
+            t.conditions = Table.read(resources.getResource(location + SeedTable.CONDITIONS.fileName()));
+            t.properties = Table.read(resources.getResource(location + SeedTable.CONDITION_PROPERTIES.fileName()));
+            t.curves = Table.read(resources.getResource(location + SeedTable.CURVES.fileName()));
+            t.maxMaterialId = maxId(t.materials, "id");
+            t.maxConditionId = maxId(t.conditions, "id");
+            t.maxCurveId = maxId(t.curves, "id");
+
+            int cond = t.properties.col("condition_id");
+            for (String[] p : t.properties.rows) {
+                t.propertiesByCondition.computeIfAbsent(Long.parseLong(p[cond]), k -> new ArrayList<>()).add(p);
+            }
+            for (String[] c : t.conditions.rows) {
+                t.materialOfCondition.put(Long.parseLong(c[t.conditions.col("id")]),
+                        Long.parseLong(c[t.conditions.col("material_id")]));
+            }
+
+            // Points sorted by (curve_id, idx) so the template may list them in any order
+            Map<Long, List<double[]>> byCurve = new HashMap<>();
+            try (CSVParser records = CsvSource.open(resources.getResource(location + SeedTable.CURVE_POINTS.fileName()))) {
+                for (CSVRecord r : records) {
+                    String z = r.get("z");
+                    byCurve.computeIfAbsent(Long.parseLong(r.get("curve_id")), k -> new ArrayList<>()).add(new double[]{
+                            Integer.parseInt(r.get("idx")), Double.parseDouble(r.get("x")), Double.parseDouble(r.get("y")),
+                            z == null || z.isEmpty() ? Double.NaN : Double.parseDouble(z)});
+                }
+            }
+            byCurve.forEach((id, rows) -> {
+                rows.sort((a, b) -> Double.compare(a[0], b[0]));
+                int n = rows.size();
+                double[] x = new double[n], y = new double[n], z = new double[n];
+                boolean hasZ = false;
+                for (int i = 0; i < n; i++) {
+                    x[i] = rows.get(i)[1];
+                    y[i] = rows.get(i)[2];
+                    z[i] = rows.get(i)[3];
+                    hasZ |= !Double.isNaN(z[i]);
+                }
+                t.points.put(id, new TemplateCurve(x, y, hasZ ? z : null));
+            });
+            return t;
+        }
+
+        private static long maxId(Table table, String column) {
+            int col = table.col(column);
+            long max = 0;
+            for (String[] r : table.rows) max = Math.max(max, Long.parseLong(r[col]));
+            return max;
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: DatasetScaler <outDir> <scale> [pointFactor] [seed]");
+            System.exit(2);
+        }
+        int scale = Integer.parseInt(args[1]);
+        int pointFactor = args.length > 2 ? Integer.parseInt(args[2]) : 1;
+        long seed = args.length > 3 ? Long.parseLong(args[3]) : 42;
+        new DatasetScaler(scale, pointFactor, seed).write(Path.of(args[0]));
+    }
+}
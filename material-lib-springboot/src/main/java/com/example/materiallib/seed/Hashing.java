@@ -0,0 +1,68 @@
+package com.example.materiallib.seed;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Content hashes used to detect dataset and schema changes.
+ */
+public final class Hashing {
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private Hashing() {}
+
+    /** Hex SHA-256 of a stream, read to the end and closed. */
+    public static String sha256(InputStream in) throws IOException {
+        MessageDigest md = sha256();
+        try (in) {
+            byte[] buf = new byte[64 * 1024];
+            for (int n; (n = in.read(buf)) > 0; ) md.update(buf, 0, n);
+        }
+        return HexFormat.of().formatHex(md.digest());
+    }
+
+    /** Hex SHA-256 of the given strings, each terminated by a newline. */
+    public static String sha256(Iterable<String> parts) {
+        MessageDigest md = sha256();
+        for (String p : parts) md.update((p + "\n").getBytes(StandardCharsets.UTF_8));
+        return HexFormat.of().formatHex(md.digest());
+    }
+
+    /**
+     * 64-bit hash of one source row's raw values (FNV-1a with a murmur3 finalizer).
+     * Row hashes of one group are combined by addition, so the result does not depend on row order.
+     */
+    public static long rowHash(Iterable<String> values) {
+        long h = FNV_OFFSET;
+        for (String v : values) {
+            if (v != null) {
+                for (int i = 0; i < v.length(); i++) {
+                    h ^= v.charAt(i);
+                    h *= FNV_PRIME;
+                }
+            }
+            h ^= 0x1f;
+            h *= FNV_PRIME;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.materiallib.seed;
+
+/**
+ * A rejected import: malformed input, a row that cannot be converted, or a batch the
+ * database refused. Batches committed before the failure are kept; {@link #committed()}
+ * counts their rows, and the message ends with that count.
+ */
+public class ImportException extends RuntimeException {
+
+    private final long committed;
+
+    public ImportException(String message, long committed, Throwable cause) {
+        super(message + " (" + committed + " rows committed)", cause);
+        this.committed = committed;
+    }
+
+    public long committed() {
+        return committed;
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.materiallib.seed;
+
+public record ImportReport(
+        String table,
+        String format,
+        long rows,
+        int batches,
+        long millis,
+        long rowsPerSecond
+) {}
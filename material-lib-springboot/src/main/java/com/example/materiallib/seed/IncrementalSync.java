@@ -0,0 +1,135 @@
+package com.example.materiallib.seed;
+
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+import org.springframework.core.io.Resource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Applies a changed dataset file to its table by diffing per-row content hashes against
+ * {@code dataset_row_hashes}, so only added, changed and removed rows are written.
+ * <p>
+ * The file is streamed twice: once to hash every row (or {@linkplain SeedTable#grouped() group}),
+ * once to write the rows whose hash changed. Memory is one hash per key, not per row.
+ * Removing a parent row cascades to its children in the database; their stored hashes are
+ * dropped with it, and the tables they belong to are reported in {@link Result#cascaded()}.
+ * Must run inside the caller's write transaction.
+ */
+@Component
+public class IncrementalSync {
+
+    private final JdbcTemplate jdbc;
+    private final DatasetMeta meta;
+
+    public IncrementalSync(JdbcTemplate jdbc, DatasetMeta meta) {
+        this.jdbc = jdbc;
+        this.meta = meta;
+    }
+
+    /**
+     * @param cascaded other tables that lost rows through {@code ON DELETE CASCADE}
+     */
+    public record Result(SeedTable table, int written, int removed, Set<Long> touchedKeys, Set<String> cascaded) {}
+
+    public Result sync(SeedTable table, Resource csv) throws IOException {
+        Map<Long, Long> fresh = hashRows(table, csv);
+        Map<Long, Long> stored = meta.rowHashes(table.table());
+
+        Map<Long, Long> changed = new HashMap<>();
+        fresh.forEach((k, h) -> {
+            if (!Objects.equals(stored.get(k), h)) changed.put(k, h);
+        });
+        List<Long> removed = new ArrayList<>();
+        for (Long k : stored.keySet()) {
+            if (!fresh.containsKey(k)) removed.add(k);
+        }
+
+        if (table.grouped()) deleteKeys(table, changed.keySet());
+        Set<String> cascaded = forgetCascade(table, removed);
+        deleteKeys(table, removed);
+
+        if (!changed.isEmpty()) {
+            String sql = table.upsertSql();
+            List<Object[]> batch = new ArrayList<>(table.batchSize());
+            try (CSVParser records = CsvSource.open(csv)) {
+                for (CSVRecord r : records) {
+                    if (!changed.containsKey(table.keyOf(r::get))) continue;
+                    batch.add(table.convert(r::get));
+                    if (batch.size() >= table.batchSize()) {
+                        jdbc.batchUpdate(sql, batch);
+                        batch.clear();
+                    }
+                }
+            }
+            if (!batch.isEmpty()) jdbc.batchUpdate(sql, batch);
+        }
+
+        meta.saveRowHashes(table.table(), changed, removed);
+
+        Set<Long> touched = new HashSet<>(changed.keySet());
+        touched.addAll(removed);
+        return new Result(table, changed.size(), removed.size(), touched, cascaded);
+    }
+
+    /** Row (or group) hash per key of a dataset file. */
+    public static Map<Long, Long> hashRows(SeedTable table, Resource csv) throws IOException {
+        Map<Long, Long> out = new HashMap<>();
+        try (CSVParser records = CsvSource.open(csv)) {
+            for (CSVRecord r : records) {
+                out.merge(table.keyOf(r::get), Hashing.rowHash(r), Long::sum);
+            }
+        }
+        return out;
+    }
+
+    /**
+     * Drops the stored hashes of the child rows that deleting {@code keys} from {@code parent}
+     * removes by cascade, so later syncs of the child tables diff against the rows that are
+     * really left. Must run before the delete. Returns the tables that lose rows.
+     */
+    private Set<String> forgetCascade(SeedTable parent, List<Long> keys) {
+        Set<String> tables = new LinkedHashSet<>();
+        if (keys.isEmpty()) return tables;
+        // blobs hang off curves as well, but have no hashes of their own
+        if (parent == SeedTable.CURVES) tables.add("curve_point_blobs");
+        for (SeedTable child : SeedTable.values()) {
+            if (child.parent() != parent) continue;
+            List<Long> childKeys = new ArrayList<>();
+            for (int i = 0; i < keys.size(); i += 500) {
+                List<Long> chunk = keys.subList(i, Math.min(i + 500, keys.size()));
+                String in = String.join(",", Collections.nCopies(chunk.size(), "?"));
+                childKeys.addAll(jdbc.queryForList("SELECT DISTINCT " + child.keyColumn() + " FROM " + child.table()
+                        + " WHERE " + child.parentColumn() + " IN (" + in + ")", Long.class, chunk.toArray()));
+            }
+            if (childKeys.isEmpty()) continue;
+            tables.add(child.table());
+            tables.addAll(forgetCascade(child, childKeys));
+            meta.saveRowHashes(child.table(), Map.of(), childKeys);
+        }
+        return tables;
+    }
+
+    private void deleteKeys(SeedTable table, Iterable<Long> keys) {
+        List<Object[]> batch = new ArrayList<>(500);
+        for (Long k : keys) {
+            batch.add(new Object[]{k});
+            if (batch.size() >= 500) {
+                jdbc.batchUpdate(table.deleteByKeySql(), batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) jdbc.batchUpdate(table.deleteByKeySql(), batch);
+    }
+}
@@ -0,0 +1,283 @@
+package com.example.materiallib.seed;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Column mapping from the dataset files to each table, in load (foreign key) order.
+ * <p>
+ * A row is read through a {@code field -> value} accessor, so the same mapping serves
+ * CSV records and other row sources with the same column names.
+ */
+public enum SeedTable {
+
+    MATERIALS("materials", "materials.csv", 500, "id", false, List.of("id"), List.of(
+            "id", "name", "category", "family", "grade",
+            "standard_system", "standard_designation", "uns", "en_number",
+            "tags", "notes", "source_type", "source_name", "confidence",
+            "density", "youngs_modulus", "poisson_ratio", "yield_strength", "ultimate_strength",
+            "toughness", "thermal_expansion", "melting_point", "thermal_conductivity",
+            "created_at", "updated_at", "default_condition_id"),
+            r -> new Object[]{
+                    Long.parseLong(r.apply("id")),
+                    emptyToNull(r.apply("name")),
+                    emptyToNull(r.apply("category")),
+                    emptyToNull(r.apply("family")),
+                    emptyToNull(r.apply("grade")),
+                    emptyToNull(r.apply("standard_system")),
+                    emptyToNull(r.apply("standard_designation")),
+                    emptyToNull(r.apply("uns")),
+                    emptyToNull(r.apply("en_number")),
+                    emptyToNull(r.apply("tags")),
+                    emptyToNull(r.apply("notes")),
+                    emptyToNull(r.apply("source_type")),
+                    emptyToNull(r.apply("source_name")),
+                    emptyToNull(r.apply("confidence")),
+                    parseDoubleOrNull(r.apply("density")),
+                    parseDoubleOrNull(r.apply("youngs_modulus")),
+                    parseDoubleOrNull(r.apply("poisson_ratio")),
+                    parseDoubleOrNull(r.apply("yield_strength")),
+                    parseDoubleOrNull(r.apply("ultimate_strength")),
+                    parseDoubleOrNull(r.apply("toughness")),
+                    parseDoubleOrNull(r.apply("thermal_expansion")),
+                    parseDoubleOrNull(r.apply("melting_point")),
+                    parseDoubleOrNull(r.apply("thermal_conductivity")),
+                    emptyToNull(r.apply("created_at")),
+                    emptyToNull(r.apply("updated_at")),
+                    parseLongOrNull(r.apply("default_condition_id"))
+            }),
+
+    CONDITIONS("conditions", "conditions.csv", 500, "id", false, List.of("id"), List.of(
+            "id", "material_id", "condition_name", "process_route", "product_form",
+            "heat_treatment", "notes", "is_default", "created_at", "updated_at"),
+            r -> new Object[]{
+                    Long.parseLong(r.apply("id")),
+                    Long.parseLong(r.apply("material_id")),
+                    emptyToNull(r.apply("condition_name")),
+                    emptyToNull(r.apply("process_route")),
+                    emptyToNull(r.apply("product_form")),
+                    emptyToNull(r.apply("heat_treatment")),
+                    emptyToNull(r.apply("notes")),
+                    parseBooleanToInt(r.apply("is_default")),
+                    emptyToNull(r.apply("created_at")),
+                    emptyToNull(r.apply("updated_at"))
+            }),
+
+    CONDITION_PROPERTIES("condition_properties", "condition_properties.csv", 1000, "condition_id", true, List.of(), List.of(
+            "condition_id", "prop_key", "prop_name", "value_num", "value_text",
+            "unit", "basis", "method", "standard", "notes",
+            "temperature_c", "strain_rate", "frequency_hz", "environment", "uncertainty", "confidence"),
+            r -> new Object[]{
+                    Long.parseLong(r.apply("condition_id")),
+                    emptyToNull(r.apply("prop_key")),
+                    emptyToNull(r.apply("prop_name")),
+                    parseDoubleOrNull(r.apply("value_num")),
+                    emptyToNull(r.apply("value_text")),
+                    emptyToNull(r.apply("unit")),
+                    emptyToNull(r.apply("basis")),
+                    emptyToNull(r.apply("method")),
+                    emptyToNull(r.apply("standard")),
+                    emptyToNull(r.apply("notes")),
+                    parseDoubleOrNull(r.apply("temperature_c")),
+                    parseDoubleOrNull(r.apply("strain_rate")),
+                    parseDoubleOrNull(r.apply("frequency_hz")),
+                    emptyToNull(r.apply("environment")),
+                    parseDoubleOrNull(r.apply("uncertainty")),
+                    emptyToNull(r.apply("confidence"))
+            }),
+
+    CURVES("curves", "curves.csv", 500, "id", false, List.of("id"), List.of(
+            "id", "condition_id", "curve_type", "x_label", "y_label",
+            "x_unit", "y_unit", "test_temperature_c", "strain_rate", "frequency_hz",
+            "environment", "standard", "notes", "created_at", "updated_at"),
+            r -> new Object[]{
+                    Long.parseLong(r.apply("id")),
+                    Long.parseLong(r.apply("condition_id")),
+                    emptyToNull(r.apply("curve_type")),
+                    emptyToNull(r.apply("x_label")),
+                    emptyToNull(r.apply("y_label")),
+                    emptyToNull(r.apply("x_unit")),
+                    emptyToNull(r.apply("y_unit")),
+                    parseDoubleOrNull(r.apply("test_temperature_c")),
+                    parseDoubleOrNull(r.apply("strain_rate")),
+                    parseDoubleOrNull(r.apply("frequency_hz")),
+                    emptyToNull(r.apply("environment")),
+                    emptyToNull(r.apply("standard")),
+                    emptyToNull(r.apply("notes")),
+                    emptyToNull(r.apply("created_at")),
+                    emptyToNull(r.apply("updated_at"))
+            }),
+
+    CURVE_POINTS("curve_points", "curve_points.csv", 2000, "curve_id", true, List.of("curve_id", "idx"), List.of(
+            "curve_id", "idx", "x", "y", "z"),
+            r -> new Object[]{
+                    Long.parseLong(r.apply("curve_id")),
+                    Integer.parseInt(r.apply("idx")),
+                    Double.parseDouble(r.apply("x")),
+                    Double.parseDouble(r.apply("y")),
+                    parseDoubleOrNull(r.apply("z"))
+            });
+
+    private final String table;
+    private final String fileName;
+    private final int batchSize;
+    private final String keyColumn;
+    private final boolean grouped;
+    private final List<String> conflictColumns;
+    private final List<String> columns;
+    private final Function<Function<String, String>, Object[]> converter;
+
+    SeedTable(String table, String fileName, int batchSize, String keyColumn, boolean grouped,
+              List<String> conflictColumns, List<String> columns,
+              Function<Function<String, String>, Object[]> converter) {
+        this.table = table;
+        this.fileName = fileName;
+        this.batchSize = batchSize;
+        this.keyColumn = keyColumn;
+        this.grouped = grouped;
+        this.conflictColumns = conflictColumns;
+        this.columns = columns;
+        this.converter = converter;
+    }
+
+    public String table() {
+        return table;
+    }
+
+    /** Name of the CSV file under {@code data/}. */
+    public String fileName() {
+        return fileName;
+    }
+
+    public int batchSize() {
+        return batchSize;
+    }
+
+    /** Inserted columns, in the order of the values returned by {@link #convert}. */
+    public List<String> columns() {
+        return columns;
+    }
+
+    /**
+     * Column identifying a row, or for {@linkplain #grouped() grouped} tables the parent
+     * column whose rows are always replaced together.
+     */
+    public String keyColumn() {
+        return keyColumn;
+    }
+
+    /**
+     * True for child tables without a stable row id in the source (properties, curve points):
+     * their rows are diffed and rewritten per {@link #keyColumn()} group.
+     */
+    public boolean grouped() {
+        return grouped;
+    }
+
+    /** The table this one references with {@code ON DELETE CASCADE}, or null. */
+    public SeedTable parent() {
+        return switch (this) {
+            case CONDITIONS -> MATERIALS;
+            case CONDITION_PROPERTIES, CURVES -> CONDITIONS;
+            case CURVE_POINTS -> CURVES;
+            case MATERIALS -> null;
+        };
+    }
+
+    /** Column referencing {@link #parent()}'s id. */
+    public String parentColumn() {
+        return switch (this) {
+            case CONDITIONS -> "material_id";
+            case CONDITION_PROPERTIES, CURVES -> "condition_id";
+            case CURVE_POINTS -> "curve_id";
+            case MATERIALS -> null;
+        };
+    }
+
+    public long keyOf(Function<String, String> field) {
+        return Long.parseLong(field.apply(keyColumn).trim());
+    }
+
+    public String insertSql() {
+        return "INSERT INTO " + table + "(" + String.join(", ", columns) + ")"
+                + " VALUES (" + "?,".repeat(columns.size() - 1) + "?)";
+    }
+
+    /**
+     * Insert that updates an existing row with the same unique key in place. Unlike
+     * {@code INSERT OR REPLACE}, this never deletes the row, so no foreign key cascade fires.
+     * Tables without a unique key in the source ({@code condition_properties}) get a plain insert;
+     * see {@link #replacesGroups()}.
+     */
+    public String upsertSql() {
+        if (conflictColumns.isEmpty()) return insertSql();
+        StringBuilder set = new StringBuilder();
+        for (String c : columns) {
+            if (conflictColumns.contains(c)) continue;
+            if (!set.isEmpty()) set.append(", ");
+            set.append(c).append(" = excluded.").append(c);
+        }
+        return insertSql() + " ON CONFLICT(" + String.join(", ", conflictColumns) + ") DO UPDATE SET " + set;
+    }
+
+    /**
+     * True when rows cannot be matched one by one ({@link #upsertSql()} is a plain insert): a
+     * write must first delete the {@link #keyColumn()} groups it brings, as a sync does.
+     */
+    public boolean replacesGroups() {
+        return grouped && conflictColumns.isEmpty();
+    }
+
+    public String deleteByKeySql() {
+        return "DELETE FROM " + table + " WHERE " + keyColumn + " = ?";
+    }
+
+    /**
+     * Converts one source row to insert parameters.
+     *
+     * @param field returns the raw text of a column, or {@code null} when absent
+     * @throws NumberFormatException if a required key or coordinate is not a number
+     */
+    public Object[] convert(Function<String, String> field) {
+        return converter.apply(field);
+    }
+
+    public static SeedTable fromTable(String table) {
+        for (SeedTable t : values()) {
+            if (t.table.equals(table)) return t;
+        }
+        throw new IllegalArgumentException("Unknown table: " + table);
+    }
+
+    static String emptyToNull(String s) {
+        if (s == null) return null;
+        s = s.trim();
+        return s.isEmpty() ? null : s;
+    }
+
+    static Double parseDoubleOrNull(String s) {
+        s = emptyToNull(s);
+        if (s == null) return null;
+        try {
+            return Double.parseDouble(s);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    static Long parseLongOrNull(String s) {
+        s = emptyToNull(s);
+        if (s == null) return null;
+        try {
+            return Long.parseLong(s);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    static int parseBooleanToInt(String s) {
+        s = emptyToNull(s);
+        if (s == null) return 0;
+        return Boolean.parseBoolean(s) ? 1 : 0;
+    }
+}
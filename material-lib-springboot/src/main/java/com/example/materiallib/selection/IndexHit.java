@@ -0,0 +1,8 @@
+package com.example.materiallib.selection;
+
+public record IndexHit(
+        long id,
+        String name,
+        String category,
+        double value
+) {}
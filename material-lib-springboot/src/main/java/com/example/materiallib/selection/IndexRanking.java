@@ -0,0 +1,13 @@
+package com.example.materiallib.selection;
+
+import java.util.List;
+
+/**
+ * @param candidates rows that passed the filters and have a value for the index
+ */
+public record IndexRanking(
+        String index,
+        String order,
+        int candidates,
+        List<IndexHit> hits
+) {}
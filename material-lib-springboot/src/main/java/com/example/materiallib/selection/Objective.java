@@ -0,0 +1,30 @@
+package com.example.materiallib.selection;
+
+import java.util.Locale;
+
+/** A performance index to maximize or minimize. */
+public record Objective(PerformanceIndex index, boolean maximize) {
+
+    /**
+     * Parses {@code "max:expr"} or {@code "min:expr"}; a bare expression is maximized.
+     *
+     * @throws IllegalArgumentException if the expression is malformed
+     */
+    public static Objective parse(String spec) {
+        String s = spec.trim();
+        int colon = s.indexOf(':');
+        if (colon < 0) return new Objective(PerformanceIndex.parse(s), true);
+        String direction = s.substring(0, colon).trim().toLowerCase(Locale.ROOT);
+        boolean maximize = switch (direction) {
+            case "max" -> true;
+            case "min" -> false;
+            default -> throw new IllegalArgumentException("Objective must start with max: or min: " + spec);
+        };
+        return new Objective(PerformanceIndex.parse(s.substring(colon + 1)), maximize);
+    }
+
+    @Override
+    public String toString() {
+        return (maximize ? "max:" : "min:") + index.expression();
+    }
+}
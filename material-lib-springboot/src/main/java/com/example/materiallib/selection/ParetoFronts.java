@@ -0,0 +1,116 @@
+package com.example.materiallib.selection;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Non-dominated sorting of rows on k objectives, every objective oriented so that larger is
+ * better. A row dominates another if it is at least as good on every objective and better on
+ * one; identical rows share a front.
+ * <p>
+ * Rows are first sorted lexicographically, best first ({@code Arrays.parallelSort}), so a row
+ * can only be dominated by rows before it. For two objectives each row's front is then found
+ * by binary search over the best second objective of each front so far: O(n log n) overall.
+ * For more objectives fronts are peeled one at a time against the rows kept so far.
+ */
+final class ParetoFronts {
+
+    private ParetoFronts() {}
+
+    /**
+     * Front number (1 = Pareto-optimal) of each of {@code rows}, or 0 for rows beyond
+     * {@code maxFronts}. {@code objectives[k][row]} must be finite for every given row.
+     */
+    static int[] fronts(double[][] objectives, int[] rows, int maxFronts) {
+        int n = rows.length;
+        // positions into rows, best first
+        Integer[] order = new Integer[n];
+        for (int i = 0; i < n; i++) order[i] = i;
+        Arrays.parallelSort(order, (a, b) -> {
+            for (double[] o : objectives) {
+                int c = Double.compare(o[rows[b]], o[rows[a]]);
+                if (c != 0) return c;
+            }
+            return 0;
+        });
+
+        int[] sorted = new int[n];
+        for (int i = 0; i < n; i++) sorted[i] = rows[order[i]];
+        int[] front = objectives.length == 2
+                ? twoObjectives(objectives[0], objectives[1], sorted, maxFronts)
+                : peel(objectives, sorted, maxFronts);
+
+        int[] out = new int[n];
+        for (int i = 0; i < n; i++) out[order[i]] = front[i];
+        return out;
+    }
+
+    private static int[] twoObjectives(double[] first, double[] second, int[] sorted, int maxFronts) {
+        int n = sorted.length;
+        int[] front = new int[n];
+        // best[f] = highest second objective in front f + 1 so far; decreasing in f
+        double[] best = new double[Math.min(n, maxFronts)];
+        int fronts = 0;
+        for (int i = 0; i < n; i++) {
+            int row = sorted[i];
+            if (i > 0 && first[row] == first[sorted[i - 1]] && second[row] == second[sorted[i - 1]]) {
+                front[i] = front[i - 1];
+                continue;
+            }
+            double y = second[row];
+            // every earlier row is at least as good on the first objective, so front f dominates
+            // this row iff its best second objective reaches y; find the first front that does not
+            int lo = 0;
+            int hi = fronts;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (best[mid] >= y) lo = mid + 1;
+                else hi = mid;
+            }
+            if (lo >= best.length) continue;
+            best[lo] = y;
+            if (lo == fronts) fronts++;
+            front[i] = lo + 1;
+        }
+        return front;
+    }
+
+    private static int[] peel(double[][] objectives, int[] sorted, int maxFronts) {
+        int n = sorted.length;
+        int[] front = new int[n];
+        List<Integer> remaining = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) remaining.add(i);
+        for (int f = 1; f <= maxFronts && !remaining.isEmpty(); f++) {
+            List<Integer> kept = new ArrayList<>();
+            List<Integer> next = new ArrayList<>();
+            for (int i : remaining) {
+                int row = sorted[i];
+                boolean dominated = false;
+                for (int k : kept) {
+                    if (dominates(objectives, sorted[k], row)) {
+                        dominated = true;
+                        break;
+                    }
+                }
+                if (dominated) {
+                    next.add(i);
+                } else {
+                    kept.add(i);
+                    front[i] = f;
+                }
+            }
+            remaining = next;
+        }
+        return front;
+    }
+
+    private static boolean dominates(double[][] objectives, int a, int b) {
+        boolean better = false;
+        for (double[] o : objectives) {
+            if (o[a] < o[b]) return false;
+            if (o[a] > o[b]) better = true;
+        }
+        return better;
+    }
+}
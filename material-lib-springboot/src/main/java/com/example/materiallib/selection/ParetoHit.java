@@ -0,0 +1,10 @@
+package com.example.materiallib.selection;
+
+/** A material on Pareto front {@code front} (1 = optimal), with its objective values in request order. */
+public record ParetoHit(
+        long id,
+        String name,
+        String category,
+        int front,
+        double[] values
+) {}
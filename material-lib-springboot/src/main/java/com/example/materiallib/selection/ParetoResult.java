@@ -0,0 +1,12 @@
+package com.example.materiallib.selection;
+
+import java.util.List;
+
+/**
+ * @param candidates rows that passed the filters and have a value for every objective
+ */
+public record ParetoResult(
+        List<String> objectives,
+        int candidates,
+        List<ParetoHit> hits
+) {}
@@ -0,0 +1,109 @@
+package com.example.materiallib.selection;
+
+import com.example.materiallib.query.MaterialColumn;
+import com.example.materiallib.query.MaterialSnapshot;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * A material performance index: a product of numeric columns raised to powers, such as
+ * {@code youngs_modulus^(1/2)/density}. Also accepts the name of a {@link #PRESETS preset}.
+ * <p>
+ * Syntax: {@code column[^p] (('*' | '/') column[^p])*} where {@code p} is a number or a
+ * parenthesized fraction {@code (a/b)}. A row whose value is missing, or whose result is not
+ * finite (e.g. a fractional power of a negative value), has no index value (NaN).
+ */
+public record PerformanceIndex(String expression, List<Factor> factors) {
+
+    /** Classic Ashby indices for light, stiff or strong ties, beams and plates. */
+    public static final Map<String, String> PRESETS;
+
+    static {
+        Map<String, String> p = new LinkedHashMap<>();
+        p.put("stiff_tie", "youngs_modulus/density");
+        p.put("strong_tie", "yield_strength/density");
+        p.put("stiff_beam", "youngs_modulus^(1/2)/density");
+        p.put("strong_beam", "yield_strength^(2/3)/density");
+        p.put("stiff_plate", "youngs_modulus^(1/3)/density");
+        p.put("strong_plate", "yield_strength^(1/2)/density");
+        p.put("thermal_shock", "yield_strength/youngs_modulus/thermal_expansion");
+        PRESETS = Map.copyOf(p);
+    }
+
+    /** {@code column^exponent}; denominators carry a negative exponent. */
+    public record Factor(MaterialColumn column, double exponent) {}
+
+    /**
+     * @throws IllegalArgumentException if the expression is malformed or names an unknown column
+     */
+    public static PerformanceIndex parse(String spec) {
+        String expression = PRESETS.getOrDefault(spec.trim(), spec.trim());
+        String s = expression.replace(" ", "").toLowerCase(Locale.ROOT);
+        List<Factor> factors = new ArrayList<>();
+        int i = 0;
+        double sign = 1;
+        while (true) {
+            int start = i;
+            while (i < s.length() && (Character.isLetter(s.charAt(i)) || s.charAt(i) == '_')) i++;
+            String name = s.substring(start, i);
+            MaterialColumn column = MaterialColumn.fromColumn(name).orElseThrow(() ->
+                    new IllegalArgumentException("Unknown column in index " + spec + ": " + (name.isEmpty() ? "(none)" : name)));
+            double exponent = 1;
+            if (i < s.length() && s.charAt(i) == '^') {
+                int from = i + 1;
+                int end = from < s.length() && s.charAt(from) == '(' ? s.indexOf(')', from) + 1 : operatorAfter(s, from);
+                if (end <= from) throw new IllegalArgumentException("Invalid exponent in index: " + spec);
+                exponent = exponent(s.substring(from, end), spec);
+                i = end;
+            }
+            factors.add(new Factor(column, sign * exponent));
+            if (i == s.length()) break;
+            char op = s.charAt(i++);
+            if (op == '*') sign = 1;
+            else if (op == '/') sign = -1;
+            else throw new IllegalArgumentException("Unexpected '" + op + "' in index: " + spec);
+        }
+        return new PerformanceIndex(expression, List.copyOf(factors));
+    }
+
+    /** Index value of every row of the snapshot; NaN where it is undefined. */
+    public double[] evaluate(MaterialSnapshot snapshot, boolean parallel) {
+        int n = snapshot.size();
+        double[] out = new double[n];
+        double[][] cols = new double[factors.size()][];
+        for (int f = 0; f < cols.length; f++) cols[f] = snapshot.column(factors.get(f).column());
+        Selection.forRange(n, parallel, (from, to) -> {
+            for (int row = from; row < to; row++) {
+                double v = 1;
+                for (int f = 0; f < cols.length; f++) {
+                    double e = factors.get(f).exponent();
+                    double x = cols[f][row];
+                    v *= e == 1 ? x : e == -1 ? 1 / x : Math.pow(x, e);
+                }
+                out[row] = Double.isFinite(v) ? v : Double.NaN;
+            }
+        });
+        return out;
+    }
+
+    private static int operatorAfter(String s, int from) {
+        int i = from;
+        while (i < s.length() && s.charAt(i) != '*' && s.charAt(i) != '/') i++;
+        return i;
+    }
+
+    private static double exponent(String p, String spec) {
+        String body = p.startsWith("(") && p.endsWith(")") ? p.substring(1, p.length() - 1) : p;
+        try {
+            int slash = body.indexOf('/');
+            if (slash < 0) return Double.parseDouble(body);
+            return Double.parseDouble(body.substring(0, slash)) / Double.parseDouble(body.substring(slash + 1));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid exponent in index " + spec + ": " + p);
+        }
+    }
+}
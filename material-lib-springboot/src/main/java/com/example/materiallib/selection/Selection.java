@@ -0,0 +1,43 @@
+package com.example.materiallib.selection;
+
+import java.util.stream.IntStream;
+
+/** Splitting row ranges across the common fork-join pool. */
+final class Selection {
+
+    /** Below this many rows the work is done on the calling thread. */
+    static final int PARALLEL_THRESHOLD = 50_000;
+    private static final int CHUNK = 16_384;
+
+    private Selection() {}
+
+    interface RangeTask {
+        void run(int from, int to);
+    }
+
+    static boolean parallel(int rows) {
+        return rows >= PARALLEL_THRESHOLD && Runtime.getRuntime().availableProcessors() > 1;
+    }
+
+    static int chunks(int n) {
+        return (n + CHUNK - 1) / CHUNK;
+    }
+
+    /** Runs {@code task} over [0, n), in parallel chunks when {@code parallel}. */
+    static void forRange(int n, boolean parallel, RangeTask task) {
+        if (!parallel) {
+            task.run(0, n);
+            return;
+        }
+        IntStream.range(0, chunks(n)).parallel()
+                .forEach(c -> task.run(c * CHUNK, Math.min(n, (c + 1) * CHUNK)));
+    }
+
+    static int chunkStart(int c) {
+        return c * CHUNK;
+    }
+
+    static int chunkEnd(int c, int n) {
+        return Math.min(n, (c + 1) * CHUNK);
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.materiallib.selection;
+
+import com.example.materiallib.query.MaterialQueryEngine;
+import com.example.materiallib.query.MaterialSnapshot;
+import com.example.materiallib.query.RangePredicate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.stream.IntStream;
+
+/**
+ * Ashby-style material selection over the in-memory {@link MaterialSnapshot}: Pareto fronts
+ * on several performance indices, and materials ranked by one index.
+ * <p>
+ * Index values are computed per request into primitive arrays, in parallel chunks for large
+ * catalogs ({@value Selection#PARALLEL_THRESHOLD}+ rows). Fronts use an O(n log n) sort-and-sweep
+ * (see {@link ParetoFronts}); rankings keep a bounded heap per chunk instead of sorting every row.
+ */
+@Component
+public class SelectionEngine {
+
+    private final MaterialQueryEngine materials;
+
+    public SelectionEngine(MaterialQueryEngine materials) {
+        this.materials = materials;
+    }
+
+    /**
+     * Materials on the first {@code maxFronts} Pareto fronts of {@code objectives}, ordered by
+     * front, then by the first objective (best first).
+     */
+    public ParetoResult pareto(List<Objective> objectives, List<RangePredicate> predicates, String category,
+                               String nameContains, int maxFronts, int limit) {
+        if (objectives.isEmpty()) throw new IllegalArgumentException("At least one objective is required");
+        MaterialSnapshot s = materials.snapshot();
+        boolean parallel = Selection.parallel(s.size());
+        int k = objectives.size();
+        double[][] values = new double[k][];
+        double[][] oriented = new double[k][];
+        for (int o = 0; o < k; o++) {
+            values[o] = objectives.get(o).index().evaluate(s, parallel);
+            oriented[o] = objectives.get(o).maximize() ? values[o] : negate(values[o], parallel);
+        }
+
+        long[] words = s.filter(predicates, category, nameContains);
+        int[] rows = candidates(words, values);
+        int[] fronts = ParetoFronts.fronts(oriented, rows, maxFronts);
+
+        Integer[] hits = IntStream.range(0, rows.length).filter(i -> fronts[i] > 0).boxed().toArray(Integer[]::new);
+        double[] first = oriented[0];
+        Arrays.sort(hits, Comparator.<Integer>comparingInt(i -> fronts[i])
+                .thenComparing(i -> -first[rows[i]])
+                .thenComparingInt(i -> rows[i]));
+
+        List<ParetoHit> out = new ArrayList<>(Math.min(limit, hits.length));
+        for (int h = 0; h < hits.length && out.size() < limit; h++) {
+            int row = rows[hits[h]];
+            double[] v = new double[k];
+            for (int o = 0; o < k; o++) v[o] = values[o][row];
+            out.add(new ParetoHit(s.id(row), s.name(row), s.category(row), fronts[hits[h]], v));
+        }
+        return new ParetoResult(objectives.stream().map(Objective::toString).toList(), rows.length, out);
+    }
+
+    /** The {@code limit} materials with the highest (or lowest) index value. */
+    public IndexRanking rank(PerformanceIndex index, boolean descending, List<RangePredicate> predicates,
+                             String category, String nameContains, int limit) {
+        MaterialSnapshot s = materials.snapshot();
+        boolean parallel = Selection.parallel(s.size());
+        double[] values = index.evaluate(s, parallel);
+        long[] words = s.filter(predicates, category, nameContains);
+        int[] rows = candidates(words, new double[][]{values});
+
+        // worst of the kept rows at the head; ties go to the later row in (name, id) order
+        Comparator<Integer> better = (a, b) -> {
+            int c = descending ? Double.compare(values[a], values[b]) : Double.compare(values[b], values[a]);
+            return c != 0 ? c : Integer.compare(b, a);
+        };
+        int chunks = parallel ? Selection.chunks(rows.length) : 1;
+        List<Integer> kept = IntStream.range(0, chunks).parallel()
+                .mapToObj(c -> {
+                    int from = parallel ? Selection.chunkStart(c) : 0;
+                    int to = parallel ? Selection.chunkEnd(c, rows.length) : rows.length;
+                    PriorityQueue<Integer> heap = new PriorityQueue<>(Math.min(limit, to - from) + 1, better);
+                    for (int i = from; i < to; i++) {
+                        heap.add(rows[i]);
+                        if (heap.size() > limit) heap.poll();
+                    }
+                    return heap;
+                })
+                .flatMap(PriorityQueue::stream)
+                .sorted(better.reversed())
+                .limit(limit)
+                .toList();
+
+        List<IndexHit> out = new ArrayList<>(kept.size());
+        for (int row : kept) out.add(new IndexHit(s.id(row), s.name(row), s.category(row), values[row]));
+        return new IndexRanking(index.expression(), descending ? "desc" : "asc", rows.length, out);
+    }
+
+    /** Selected rows with a value for every array, in (name, id) order. */
+    private static int[] candidates(long[] words, double[][] values) {
+        int[] rows = new int[MaterialSnapshot.cardinality(words)];
+        int[] n = {0};
+        MaterialSnapshot.forEachSet(words, row -> {
+            for (double[] v : values) {
+                if (Double.isNaN(v[row])) return;
+            }
+            rows[n[0]++] = row;
+        });
+        return Arrays.copyOf(rows, n[0]);
+    }
+
+    private static double[] negate(double[] values, boolean parallel) {
+        double[] out = new double[values.length];
+        Selection.forRange(values.length, parallel, (from, to) -> {
+            for (int i = from; i < to; i++) out[i] = -values[i];
+        });
+        return out;
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.materiallib.selection;
+
+/**
+ * @param distance weighted RMS difference over the features both materials have, in
+ *                 standard deviations of the (log-scaled) feature
+ * @param sharedFeatures number of weighted features both materials have values for
+ */
+public record SimilarMaterial(
+        long id,
+        String name,
+        String category,
+        double distance,
+        int sharedFeatures
+) {}
@@ -0,0 +1,230 @@
+package com.example.materiallib.selection;
+
+import com.example.materiallib.query.MaterialColumn;
+import com.example.materiallib.query.MaterialQueryEngine;
+import com.example.materiallib.query.MaterialSnapshot;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.stream.IntStream;
+
+/**
+ * k-nearest-neighbour search over the numeric material columns.
+ * <p>
+ * Each material is a row of a flat row-major {@code float[]}, one value per
+ * {@link MaterialColumn}, NaN where missing. Columns whose values are all positive are
+ * log-scaled (moduli and strengths span orders of magnitude), then every column is
+ * standardized to zero mean and unit variance. A query is one linear scan: for catalogs of
+ * {@value Selection#PARALLEL_THRESHOLD}+ rows the scan runs in parallel chunks, each keeping a
+ * bounded heap of its k best.
+ * <p>
+ * Distances only use features present in both materials, as a weighted RMS, and a candidate
+ * must share at least half of the query's feature weight. The vectors are rebuilt whenever
+ * the material snapshot is.
+ */
+@Component
+public class SimilarityIndex {
+
+    private static final int DIMS = MaterialColumn.values().length;
+    private static final float MIN_SHARED_WEIGHT = 0.5f;
+
+    private final MaterialQueryEngine materials;
+    private volatile Vectors vectors;
+
+    public SimilarityIndex(MaterialQueryEngine materials) {
+        this.materials = materials;
+    }
+
+    /**
+     * Weights per {@link MaterialColumn} ordinal: {@code features} (comma-separated columns)
+     * selects the features, all if null; {@code weights} ({@code column:w,...}) overrides the
+     * default weight of 1.
+     *
+     * @throws IllegalArgumentException on an unknown column, or a weight that is not a finite
+     *                                  number {@code >= 0}
+     */
+    public static float[] weights(String features, String weights) {
+        float[] w = new float[DIMS];
+        if (features == null) {
+            Arrays.fill(w, 1f);
+        } else {
+            for (String f : features.split(",")) {
+                if (!f.isBlank()) w[column(f).ordinal()] = 1f;
+            }
+        }
+        if (weights != null) {
+            for (String spec : weights.split(",")) {
+                if (spec.isBlank()) continue;
+                int colon = spec.indexOf(':');
+                if (colon < 0) throw new IllegalArgumentException("Weight must be column:value: " + spec);
+                try {
+                    float value = Float.parseFloat(spec.substring(colon + 1).trim());
+                    if (!Float.isFinite(value) || value < 0) throw new NumberFormatException();
+                    w[column(spec.substring(0, colon)).ordinal()] = value;
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Invalid weight (expected a finite number >= 0): " + spec);
+                }
+            }
+        }
+        return w;
+    }
+
+    /**
+     * The {@code k} materials nearest to material {@code id}, closest first, optionally only
+     * from {@code category}. Empty if there is no such material.
+     */
+    public Optional<List<SimilarMaterial>> similar(long id, float[] weights, String category, int k) {
+        Vectors v = vectors();
+        MaterialSnapshot s = v.snapshot;
+        int query = v.row(id);
+        if (query < 0) return Optional.empty();
+
+        float[] q = Arrays.copyOfRange(v.data, query * DIMS, (query + 1) * DIMS);
+        float queryWeight = 0;
+        for (int j = 0; j < DIMS; j++) {
+            if (q[j] == q[j]) queryWeight += weights[j];
+        }
+        if (queryWeight == 0) return Optional.of(List.of());
+        float minShared = queryWeight * MIN_SHARED_WEIGHT;
+
+        int n = s.size();
+        boolean parallel = Selection.parallel(n);
+        int chunks = parallel ? Selection.chunks(n) : 1;
+        // farthest kept candidate at the head
+        Comparator<Candidate> farthestFirst = Comparator.comparingDouble((Candidate c) -> c.distance).reversed();
+        List<Candidate> best = IntStream.range(0, chunks).parallel()
+                .mapToObj(c -> {
+                    int from = parallel ? Selection.chunkStart(c) : 0;
+                    int to = parallel ? Selection.chunkEnd(c, n) : n;
+                    PriorityQueue<Candidate> heap = new PriorityQueue<>(k + 1, farthestFirst);
+                    float[] data = v.data;
+                    for (int row = from; row < to; row++) {
+                        if (row == query || (category != null && !category.equals(s.category(row)))) continue;
+                        int base = row * DIMS;
+                        float sum = 0;
+                        float shared = 0;
+                        int count = 0;
+                        for (int j = 0; j < DIMS; j++) {
+                            float d = q[j] - data[base + j];
+                            // NaN on either side makes d NaN, which skips the feature
+                            if (d != d || weights[j] == 0) continue;
+                            sum += weights[j] * d * d;
+                            shared += weights[j];
+                            count++;
+                        }
+                        if (shared < minShared) continue;
+                        double distance = Math.sqrt(sum / shared);
+                        if (heap.size() < k) {
+                            heap.add(new Candidate(row, distance, count));
+                        } else if (distance < heap.peek().distance) {
+                            heap.poll();
+                            heap.add(new Candidate(row, distance, count));
+                        }
+                    }
+                    return heap;
+                })
+                .flatMap(PriorityQueue::stream)
+                .sorted(Comparator.comparingDouble((Candidate c) -> c.distance).thenComparingInt(c -> c.row))
+                .limit(k)
+                .toList();
+
+        List<SimilarMaterial> out = new ArrayList<>(best.size());
+        for (Candidate c : best) {
+            out.add(new SimilarMaterial(s.id(c.row), s.name(c.row), s.category(c.row), c.distance, c.shared));
+        }
+        return Optional.of(out);
+    }
+
+    private Vectors vectors() {
+        MaterialSnapshot s = materials.snapshot();
+        Vectors v = vectors;
+        if (v == null || v.snapshot != s) {
+            synchronized (this) {
+                v = vectors;
+                if (v == null || v.snapshot != s) {
+                    v = Vectors.build(s);
+                    vectors = v;
+                }
+            }
+        }
+        return v;
+    }
+
+    private static MaterialColumn column(String name) {
+        return MaterialColumn.fromColumn(name.trim()).orElseThrow(() ->
+                new IllegalArgumentException("Unknown feature: " + name.trim()));
+    }
+
+    private record Candidate(int row, double distance, int shared) {}
+
+    /** Normalized feature vectors of one snapshot, plus an id to row lookup. */
+    private static final class Vectors {
+        final MaterialSnapshot snapshot;
+        final float[] data;
+        final long[] sortedIds;
+        final int[] rowOfSorted;
+
+        private Vectors(MaterialSnapshot snapshot, float[] data, long[] sortedIds, int[] rowOfSorted) {
+            this.snapshot = snapshot;
+            this.data = data;
+            this.sortedIds = sortedIds;
+            this.rowOfSorted = rowOfSorted;
+        }
+
+        int row(long id) {
+            int i = Arrays.binarySearch(sortedIds, id);
+            return i < 0 ? -1 : rowOfSorted[i];
+        }
+
+        static Vectors build(MaterialSnapshot s) {
+            int n = s.size();
+            float[] data = new float[n * DIMS];
+            for (MaterialColumn c : MaterialColumn.values()) {
+                double[] col = s.column(c);
+                boolean positive = true;
+                for (int row = 0; row < n; row++) {
+                    double x = col[row];
+                    if (x == x && x <= 0) {
+                        positive = false;
+                        break;
+                    }
+                }
+                double sum = 0;
+                double sumSq = 0;
+                int count = 0;
+                for (int row = 0; row < n; row++) {
+                    double x = col[row];
+                    if (x != x) continue;
+                    double t = positive ? Math.log(x) : x;
+                    sum += t;
+                    sumSq += t * t;
+                    count++;
+                }
+                double mean = count == 0 ? 0 : sum / count;
+                double sd = count < 2 ? 0 : Math.sqrt(Math.max(0, sumSq / count - mean * mean));
+                double scale = sd > 0 ? 1 / sd : 1;
+                int j = c.ordinal();
+                for (int row = 0; row < n; row++) {
+                    double x = col[row];
+                    data[row * DIMS + j] = x != x ? Float.NaN : (float) (((positive ? Math.log(x) : x) - mean) * scale);
+                }
+            }
+
+            Integer[] order = new Integer[n];
+            for (int i = 0; i < n; i++) order[i] = i;
+            Arrays.sort(order, Comparator.comparingLong(s::id));
+            long[] sortedIds = new long[n];
+            int[] rowOfSorted = new int[n];
+            for (int i = 0; i < n; i++) {
+                sortedIds[i] = s.id(order[i]);
+                rowOfSorted[i] = order[i];
+            }
+            return new Vectors(s, data, sortedIds, rowOfSorted);
+        }
+    }
+}
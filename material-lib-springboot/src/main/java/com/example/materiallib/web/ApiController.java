@@ -1,57 +1,256 @@
 package com.example.materiallib.web;
 
+import com.example.materiallib.DatasetRevisions;
 import com.example.materiallib.model.*;
+import com.example.materiallib.query.MaterialColumn;
+import com.example.materiallib.query.MaterialQueryEngine;
+import com.example.materiallib.query.RangePredicate;
 import com.example.materiallib.repo.*;
+import com.example.materiallib.selection.SimilarMaterial;
+import com.example.materiallib.selection.SimilarityIndex;
+import com.example.materiallib.curve.CurveEvalRequest;
+import com.example.materiallib.curve.CurveEvaluation;
+import com.example.materiallib.curve.CurveInterpolationService;
+import com.example.materiallib.curve.CurveLevel;
+import com.example.materiallib.curve.CurvePointsBatchRequest;
+import com.example.materiallib.curve.CurvePyramidCache;
+import com.example.materiallib.curve.CurveSlice;
+import com.example.materiallib.curve.Extrapolation;
+import com.example.materiallib.curve.Interpolant;
+import com.example.materiallib.curve.InterpolationMode;
+import com.example.materiallib.curve.PackedBlob;
+import com.example.materiallib.curve.PropertyEvalRequest;
+import com.example.materiallib.curve.PropertyEvaluation;
+import com.example.materiallib.curve.PropertyInterpolationService;
+import com.example.materiallib.curve.PropertyTable;
+import com.fasterxml.jackson.core.JsonGenerator;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 @RestController
 @RequestMapping("/api")
 public class ApiController {
 
+    private static final String JSON = MediaType.APPLICATION_JSON_VALUE;
+    private static final String NDJSON = ResponseFormats.NDJSON;
+    private static final String CBOR = ResponseFormats.CBOR;
+    private static final String CBOR_SEQ = ResponseFormats.CBOR_SEQ;
+    private static final String SMILE = ResponseFormats.SMILE;
+    private static final MediaType[] DOCUMENT_TYPES = {
+            MediaType.APPLICATION_JSON, MediaType.parseMediaType(CBOR), MediaType.parseMediaType(SMILE)};
+    private static final MediaType[] EXPORT_TYPES = {MediaType.parseMediaType(NDJSON), MediaType.parseMediaType(CBOR_SEQ)};
+    /** Materials loaded per query when exporting a range-filtered selection. */
+    private static final int EXPORT_CHUNK = 500;
+
     private final MaterialRepository materials;
     private final ConditionRepository conditions;
     private final PropertyRepository properties;
     private final CurveRepository curves;
     private final CurvePointRepository curvePoints;
+    private final CurveBatchRepository curveBatches;
+    private final MaterialQueryEngine queryEngine;
+    private final CurveInterpolationService interpolation;
+    private final PropertyInterpolationService propertyInterpolation;
+    private final CurvePyramidCache pyramids;
+    private final MaterialBundleRepository bundles;
+    private final SimilarityIndex similarity;
+    private final DatasetRevisions revisions;
+    private final ResponseFormats formats;
 
     public ApiController(MaterialRepository materials,
                          ConditionRepository conditions,
                          PropertyRepository properties,
                          CurveRepository curves,
-                         CurvePointRepository curvePoints) {
+                         CurvePointRepository curvePoints,
+                         CurveBatchRepository curveBatches,
+                         MaterialQueryEngine queryEngine,
+                         CurveInterpolationService interpolation,
+                         PropertyInterpolationService propertyInterpolation,
+                         CurvePyramidCache pyramids,
+                         MaterialBundleRepository bundles,
+                         SimilarityIndex similarity,
+                         DatasetRevisions revisions,
+                         ResponseFormats formats) {
         this.materials = materials;
         this.conditions = conditions;
         this.properties = properties;
         this.curves = curves;
         this.curvePoints = curvePoints;
+        this.curveBatches = curveBatches;
+        this.queryEngine = queryEngine;
+        this.interpolation = interpolation;
+        this.propertyInterpolation = propertyInterpolation;
+        this.pyramids = pyramids;
+        this.bundles = bundles;
+        this.similarity = similarity;
+        this.revisions = revisions;
+        this.formats = formats;
     }
 
     // Examples:
     //   GET /api/materials?limit=50
     //   GET /api/materials?name=Aluminum&limit=50
     //   GET /api/materials?category=metal&limit=50
-    @GetMapping("/materials")
-    public List<Material> listMaterials(
+    //   GET /api/materials?density=..3000&youngs_modulus=70e9..&yield_strength=2e8..4e8
+    //   GET /api/materials?limit=500&after=<X-Next-Cursor of the previous page>
+    // Numeric columns accept inclusive ranges "a..b", "a..", "..b" or a single value.
+    // Results are ordered by (name, id); a full page carries X-Next-Cursor for the next one.
+    // fields= reads and returns only those fields (id and name are always included); it
+    // applies to every list below and to their NDJSON exports.
+    //   GET /api/materials?fields=name,density,youngs_modulus&limit=500
+    @GetMapping(value = "/materials", produces = {JSON, CBOR, SMILE})
+    public ResponseEntity<List<?>> listMaterials(
             @RequestParam(required = false) String name,
             @RequestParam(required = false) String category,
-            @RequestParam(defaultValue = "50") int limit
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "50") int limit,
+            @RequestParam(required = false) String fields,
+            @RequestParam Map<String, String> params
     ) {
         limit = Math.max(1, Math.min(limit, 500));
-        if (name != null && !name.isBlank()) return materials.searchByName(name, limit);
-        if (category != null && !category.isBlank()) return materials.byCategory(category, limit);
-        return materials.findAll(limit);
+        name = blankToNull(name);
+        category = blankToNull(category);
+        PageCursor.NameId from = after == null ? null : PageCursor.nameId(after);
+        String afterName = from == null ? null : from.name();
+        long afterId = from == null ? 0 : from.id();
+        Projection projection = blankToNull(fields) == null ? null : projection(materials::projection, fields);
+
+        List<RangePredicate> ranges = rangePredicates(params);
+        long[] ids = ranges.isEmpty() ? null : queryEngine.filter(ranges, category, name, afterName, afterId, limit);
+        var response = ResponseEntity.ok();
+        if (projection != null) {
+            List<Projection.Row> page = ids == null
+                    ? materials.page(name, category, afterName, afterId, limit, projection)
+                    : materials.findByIds(ids, projection);
+            if (page.size() == limit) {
+                Projection.Row last = page.get(page.size() - 1);
+                response.header(PageCursor.HEADER, PageCursor.of((String) last.get("name"), (Long) last.get("id")));
+            }
+            return response.body(page);
+        }
+        List<Material> page = ids == null
+                ? materials.page(name, category, afterName, afterId, limit)
+                : materials.findByIds(ids);
+        if (page.size() == limit) {
+            Material last = page.get(page.size() - 1);
+            response.header(PageCursor.HEADER, PageCursor.of(last.name(), last.id()));
+        }
+        return response.body(page);
     }
 
+    // The whole filtered list as newline-delimited JSON, streamed from a forward-only cursor
+    // (no limit; "after" resumes an interrupted export). For bulk sync jobs.
+    //   GET /api/materials  with  Accept: application/x-ndjson
+    @GetMapping(value = "/materials", produces = {NDJSON, CBOR_SEQ})
+    public ResponseEntity<StreamingResponseBody> exportMaterials(
+            @RequestParam(required = false) String name,
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) String fields,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            @RequestParam Map<String, String> params
+    ) {
+        String nameContains = blankToNull(name);
+        String cat = blankToNull(category);
+        PageCursor.NameId from = after == null ? null : PageCursor.nameId(after);
+        String afterName = from == null ? null : from.name();
+        long afterId = from == null ? 0 : from.id();
+        Projection projection = blankToNull(fields) == null ? null : projection(materials::projection, fields);
+
+        List<RangePredicate> ranges = rangePredicates(params);
+        if (ranges.isEmpty()) {
+            return rows(accept, row -> {
+                if (projection == null) materials.forEach(nameContains, cat, afterName, afterId, row);
+                else materials.forEach(nameContains, cat, afterName, afterId, projection, row);
+            });
+        }
+        long[] ids = queryEngine.filter(ranges, cat, nameContains, afterName, afterId, Integer.MAX_VALUE);
+        return rows(accept, row -> {
+            for (int i = 0; i < ids.length; i += EXPORT_CHUNK) {
+                long[] chunk = Arrays.copyOfRange(ids, i, Math.min(ids.length, i + EXPORT_CHUNK));
+                if (projection == null) materials.findByIds(chunk).forEach(row);
+                else materials.findByIds(chunk, projection).forEach(row);
+            }
+        });
+    }
+
+    // Conditional: ETag and Last-Modified follow the last write to the materials table,
+    // so If-None-Match / If-Modified-Since are answered with 304 before any lookup.
     @GetMapping("/materials/{id}")
-    public Material material(@PathVariable long id) {
+    public Material material(@PathVariable long id, ServletWebRequest request) {
+        if (notModified(request, "m", "materials")) return null;
+        return material(id);
+    }
+
+    private Material material(long id) {
         return materials.findById(id).orElseThrow(() ->
                 new ResponseStatusException(HttpStatus.NOT_FOUND, "Material not found: " + id));
     }
 
+    // Whole datasheet in one response, streamed as it is read.
+    //   GET /api/materials/1/bundle
+    //   GET /api/materials/1/bundle?include=conditions,properties,curves,points
+    @GetMapping(value = "/materials/{id}/bundle", produces = {JSON, CBOR, SMILE})
+    public ResponseEntity<StreamingResponseBody> bundle(
+            @PathVariable long id,
+            @RequestParam(defaultValue = "conditions,properties,curves") String include,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept
+    ) {
+        Set<MaterialBundleRepository.Part> parts;
+        try {
+            parts = MaterialBundleRepository.Part.parse(include);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+        Material m = material(id);
+        MediaType type = ResponseFormats.negotiate(accept, DOCUMENT_TYPES);
+        return ResponseEntity.ok()
+                .contentType(type)
+                .body(out -> bundles.write(m, parts, formats.mapper(type), out));
+    }
+
+    // The k materials closest to this one on the numeric columns (log-scaled where positive,
+    // then standardized), comparing only features both have; weights default to 1.
+    //   GET /api/materials/1/similar?k=10
+    //   GET /api/materials/1/similar?k=10&category=metal&features=density,youngs_modulus,yield_strength
+    //   GET /api/materials/1/similar?weights=thermal_conductivity:3,density:0.5
+    @GetMapping("/materials/{id}/similar")
+    public List<SimilarMaterial> similar(
+            @PathVariable long id,
+            @RequestParam(defaultValue = "10") int k,
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) String features,
+            @RequestParam(required = false) String weights
+    ) {
+        k = Math.max(1, Math.min(k, 200));
+        float[] w;
+        try {
+            w = SimilarityIndex.weights(blankToNull(features), blankToNull(weights));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+        return similarity.similar(id, w, blankToNull(category), k).orElseThrow(() ->
+                new ResponseStatusException(HttpStatus.NOT_FOUND, "Material not found: " + id));
+    }
+
     @GetMapping("/materials/{id}/conditions")
     public List<MaterialCondition> conditionsForMaterial(@PathVariable long id) {
         return conditions.findByMaterialId(id);
@@ -63,15 +262,90 @@ public class ApiController {
                 new ResponseStatusException(HttpStatus.NOT_FOUND, "Default condition not found for material: " + id));
     }
 
-    @GetMapping("/conditions/{id}/properties")
-    public List<ConditionProperty> props(
+    // Ordered by id; a full page carries X-Next-Cursor, passed back as "after".
+    //   GET /api/conditions/1/properties?limit=200&after=<cursor>
+    //   GET /api/conditions/1/properties?fields=prop_key,value_num,unit,temperature_c
+    @GetMapping(value = "/conditions/{id}/properties", produces = {JSON, CBOR, SMILE})
+    public ResponseEntity<List<?>> props(
+            @PathVariable long id,
+            @RequestParam(required = false) String key,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "200") int limit,
+            @RequestParam(required = false) String fields,
+            ServletWebRequest request
+    ) {
+        if (notModified(request, "p", "condition_properties")) return null;
+        return propertyPage(id, key, after, limit, fields);
+    }
+
+    @GetMapping(value = "/conditions/{id}/properties", produces = {NDJSON, CBOR_SEQ})
+    public ResponseEntity<StreamingResponseBody> exportProps(
             @PathVariable long id,
             @RequestParam(required = false) String key,
-            @RequestParam(defaultValue = "200") int limit
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) String fields,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept
     ) {
+        return exportProperties(id, key, after, fields, accept);
+    }
+
+    // All properties across conditions, for catalog sync: keyset pages, or the whole table
+    // as NDJSON with Accept: application/x-ndjson.
+    //   GET /api/properties?limit=2000&after=<cursor>
+    @GetMapping(value = "/properties", produces = {JSON, CBOR, SMILE})
+    public ResponseEntity<List<?>> allProps(
+            @RequestParam(required = false) String key,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "200") int limit,
+            @RequestParam(required = false) String fields
+    ) {
+        return propertyPage(null, key, after, limit, fields);
+    }
+
+    @GetMapping(value = "/properties", produces = {NDJSON, CBOR_SEQ})
+    public ResponseEntity<StreamingResponseBody> exportAllProps(
+            @RequestParam(required = false) String key,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) String fields,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept
+    ) {
+        return exportProperties(null, key, after, fields, accept);
+    }
+
+    private ResponseEntity<List<?>> propertyPage(Long conditionId, String key, String after, int limit, String fields) {
         limit = Math.max(1, Math.min(limit, 2000));
-        if (key != null && !key.isBlank()) return properties.findByConditionIdAndKey(id, key, limit);
-        return properties.findByConditionId(id, limit);
+        long afterId = after == null ? 0 : PageCursor.id(after);
+        var response = ResponseEntity.ok();
+        if (blankToNull(fields) != null) {
+            Projection projection = projection(properties::projection, fields);
+            List<Projection.Row> page = properties.page(conditionId, blankToNull(key), afterId, limit, projection);
+            if (page.size() == limit) {
+                response.header(PageCursor.HEADER, PageCursor.of((Long) page.get(page.size() - 1).get("id")));
+            }
+            return response.body(page);
+        }
+        List<ConditionProperty> page = properties.page(conditionId, blankToNull(key), afterId, limit);
+        if (page.size() == limit) response.header(PageCursor.HEADER, PageCursor.of(page.get(page.size() - 1).id()));
+        return response.body(page);
+    }
+
+    private ResponseEntity<StreamingResponseBody> exportProperties(Long conditionId, String key, String after, String fields,
+                                                                   String accept) {
+        String propKey = blankToNull(key);
+        long afterId = after == null ? 0 : PageCursor.id(after);
+        Projection projection = blankToNull(fields) == null ? null : projection(properties::projection, fields);
+        return rows(accept, row -> {
+            if (projection == null) properties.forEach(conditionId, propKey, afterId, row);
+            else properties.forEach(conditionId, propKey, afterId, projection, row);
+        });
+    }
+
+    private static Projection projection(Function<String, Projection> parser, String fields) {
+        try {
+            return parser.apply(fields);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
     }
 
     @GetMapping("/conditions/{id}/curves")
@@ -85,8 +359,259 @@ public class ApiController {
                 new ResponseStatusException(HttpStatus.NOT_FOUND, "Curve not found: " + id));
     }
 
-    @GetMapping("/curves/{id}/points")
-    public List<CurvePoint> points(@PathVariable long id) {
+    // maxPoints (at least 3) returns a shape-preserving (LTTB) downsample with at most that
+    // many points; the kept points keep their original idx. Levels are cached in power-of-two
+    // sizes from 16 points up; below 16 exactly maxPoints points are returned.
+    //   GET /api/curves/1/points?maxPoints=200
+    @GetMapping(value = "/curves/{id}/points", produces = {JSON, CBOR, SMILE})
+    public List<CurvePoint> points(
+            @PathVariable long id,
+            @RequestParam(required = false) Integer maxPoints,
+            ServletWebRequest request
+    ) {
+        if (notModified(request, "pt", "curve_points")) return null;
+        curve(id);
+        if (maxPoints != null) return level(id, maxPoints).toPoints();
         return curvePoints.pointsForCurve(id);
     }
+
+    // Packed little-endian float64 arrays x[n], y[n] (and z[n] when X-Curve-Has-Z is true).
+    //   GET /api/curves/1/points  with  Accept: application/octet-stream
+    @GetMapping(value = "/curves/{id}/points", produces = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<byte[]> packedPoints(
+            @PathVariable long id,
+            @RequestParam(required = false) Integer maxPoints,
+            ServletWebRequest request
+    ) {
+        if (notModified(request, "ptb", "curve_points")) return null;
+        curve(id);
+        PackedBlob blob;
+        if (maxPoints != null) {
+            CurveLevel level = level(id, maxPoints);
+            blob = new PackedBlob(id, level.points().size(), level.points().hasZ(), level.points().toBytes());
+        } else {
+            blob = curvePoints.packedForCurve(id);
+        }
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .header("X-Curve-Point-Count", Integer.toString(blob.count()))
+                .header("X-Curve-Has-Z", Boolean.toString(blob.hasZ()))
+                .body(blob.data());
+    }
+
+    private CurveLevel level(long id, int maxPoints) {
+        try {
+            return pyramids.level(id, maxPoints);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    // Points of many curves in one response, grouped by curve in ascending id order and
+    // streamed from one scan. maxPoints (at least 3) reduces each curve with LTTB to at most
+    // that many points; xMin/xMax keep only points inside the range, before any reduction.
+    // Entries of "curves" override the request-wide settings for their curve.
+    //   POST /api/curves/points:batch  {"ids":[1,2,3], "maxPoints":500}
+    //   POST /api/curves/points:batch  {"curves":[{"id":1,"xMin":1e4,"xMax":1e6}, {"id":2,"maxPoints":100}]}
+    @PostMapping(value = "/curves/points:batch", produces = {JSON, CBOR, SMILE})
+    public ResponseEntity<StreamingResponseBody> pointsBatch(
+            @RequestBody CurvePointsBatchRequest request,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept
+    ) {
+        List<CurveSlice> slices = new ArrayList<>();
+        try {
+            if (request.ids() != null) {
+                for (long id : request.ids()) slices.add(new CurveSlice(id, null, null, null));
+            }
+            if (request.curves() != null) slices.addAll(request.curves());
+            for (int i = 0; i < slices.size(); i++) {
+                slices.set(i, slices.get(i).orDefaults(request.maxPoints(), request.xMin(), request.xMax()));
+            }
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+        if (slices.isEmpty()) throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "ids or curves is required");
+        if (slices.size() > CurveBatchRepository.MAX_CURVES) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "At most " + CurveBatchRepository.MAX_CURVES + " curves per request");
+        }
+        Set<Long> seen = new HashSet<>();
+        for (CurveSlice slice : slices) {
+            if (!seen.add(slice.id())) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Curve requested twice: " + slice.id());
+            }
+        }
+        long[] missing = curveBatches.missing(slices.stream().mapToLong(CurveSlice::id).toArray());
+        if (missing.length > 0) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Curves not found: " + Arrays.toString(missing));
+        }
+        return curvePointGroups(slices, accept);
+    }
+
+    // The same grouped points for every curve of a condition.
+    //   GET /api/conditions/1/curves/points?maxPoints=500&xMin=1e4
+    @GetMapping(value = "/conditions/{id}/curves/points", produces = {JSON, CBOR, SMILE})
+    public ResponseEntity<StreamingResponseBody> conditionCurvePoints(
+            @PathVariable long id,
+            @RequestParam(required = false) Integer maxPoints,
+            @RequestParam(required = false) Double xMin,
+            @RequestParam(required = false) Double xMax,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            ServletWebRequest request
+    ) {
+        if (notModified(request, "cpt", "curves", "curve_points")) return null;
+        List<CurveSlice> slices = new ArrayList<>();
+        try {
+            for (Curve c : curves.findByConditionId(id)) slices.add(new CurveSlice(c.id(), maxPoints, xMin, xMax));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+        return curvePointGroups(slices, accept);
+    }
+
+    private ResponseEntity<StreamingResponseBody> curvePointGroups(List<CurveSlice> slices, String accept) {
+        MediaType type = ResponseFormats.negotiate(accept, DOCUMENT_TYPES);
+        return ResponseEntity.ok()
+                .contentType(type)
+                .body(out -> curveBatches.write(slices, formats.mapper(type), out));
+    }
+
+    // Examples:
+    //   GET  /api/curves/5/eval?x=412&x=500
+    //   GET  /api/curves/1/eval?x=1e4,1e5,1e6&mode=log_log
+    //   POST /api/curves/1/eval  {"x":[...], "mode":"monotone_cubic"}
+    // x outside the tabulated range is clamped to the first/last point. x must be finite,
+    // and above 0 for log_log.
+    @GetMapping("/curves/{id}/eval")
+    public CurveEvaluation eval(
+            @PathVariable long id,
+            @RequestParam double[] x,
+            @RequestParam(defaultValue = "linear") String mode
+    ) {
+        return evaluate(id, x, mode);
+    }
+
+    @PostMapping("/curves/{id}/eval")
+    public CurveEvaluation evalBatch(@PathVariable long id, @RequestBody CurveEvalRequest request) {
+        if (request.x() == null) throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "x is required");
+        return evaluate(id, request.x(), request.mode() == null ? "linear" : request.mode());
+    }
+
+    // Value of a condition's property at arbitrary temperatures (°C), interpolated between the
+    // temperatures it is tabulated at.
+    //   GET  /api/conditions/1/properties/specific_heat_cp/at?t=20,150,400&mode=monotone_cubic
+    //   POST /api/conditions/1/properties/specific_heat_cp/at  {"temperatureC":[...], "extrapolation":"linear"}
+    // extrapolation: clamp (default), linear (end slope), none (null outside the tabulated range).
+    // Temperatures must be finite, and above 0 °C for log_log.
+    @GetMapping("/conditions/{id}/properties/{key}/at")
+    public PropertyEvaluation propertyAt(
+            @PathVariable long id,
+            @PathVariable String key,
+            @RequestParam double[] t,
+            @RequestParam(defaultValue = "linear") String mode,
+            @RequestParam(defaultValue = "clamp") String extrapolation
+    ) {
+        return evaluateProperty(id, key, t, mode, extrapolation);
+    }
+
+    @PostMapping("/conditions/{id}/properties/{key}/at")
+    public PropertyEvaluation propertyAtBatch(
+            @PathVariable long id,
+            @PathVariable String key,
+            @RequestBody PropertyEvalRequest request
+    ) {
+        if (request.temperatureC() == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "temperatureC is required");
+        }
+        return evaluateProperty(id, key, request.temperatureC(),
+                request.mode() == null ? "linear" : request.mode(),
+                request.extrapolation() == null ? "clamp" : request.extrapolation());
+    }
+
+    private PropertyEvaluation evaluateProperty(long id, String key, double[] t, String modeName, String extrapolationName) {
+        try {
+            InterpolationMode mode = InterpolationMode.parse(modeName);
+            Extrapolation extrapolation = Extrapolation.parse(extrapolationName);
+            PropertyTable table = propertyInterpolation.table(id, key, mode).orElseThrow(() ->
+                    new ResponseStatusException(HttpStatus.NOT_FOUND,
+                            "No numeric values of " + key + " for condition " + id));
+            return propertyInterpolation.evaluate(table, t, extrapolation);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    private CurveEvaluation evaluate(long id, double[] x, String modeName) {
+        Curve curve = curve(id);
+        try {
+            InterpolationMode mode = InterpolationMode.parse(modeName);
+            Interpolant f = interpolation.interpolant(id, mode);
+            f.checkDomain("x", x);
+            double[] y = new double[x.length];
+            f.evaluate(x, y);
+            return new CurveEvaluation(id, mode.name().toLowerCase(Locale.ROOT), curve.xUnit(), curve.yUnit(),
+                    f.xMin(), f.xMax(), x, y);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    /**
+     * Streams every row handed to the consumer as one JSON object per line, or as a CBOR
+     * sequence when the client accepts {@value #CBOR_SEQ} rather than NDJSON. The source runs
+     * on the response thread, so rows are written as they are read and never collected.
+     */
+    private ResponseEntity<StreamingResponseBody> rows(String accept, Consumer<Consumer<Object>> source) {
+        MediaType type = ResponseFormats.negotiate(accept, EXPORT_TYPES);
+        boolean lines = type.getSubtype().equals("x-ndjson");
+        return ResponseEntity.ok()
+                .contentType(type)
+                .body(out -> {
+                    try (JsonGenerator gen = formats.mapper(type).getFactory().createGenerator(out)) {
+                        if (lines) gen.setRootValueSeparator(null);
+                        source.accept(row -> {
+                            try {
+                                gen.writeObject(row);
+                                if (lines) gen.writeRaw('\n');
+                            } catch (IOException e) {
+                                throw new UncheckedIOException(e);
+                            }
+                        });
+                    }
+                });
+    }
+
+    static String blankToNull(String s) {
+        return s == null || s.isBlank() ? null : s;
+    }
+
+    /**
+     * Sets the validators of a response built from {@code tables} and checks the request's
+     * conditional headers against them. {@code true} means a 304 has been prepared and the
+     * handler should return {@code null}. CBOR and Smile responses get ETags of their own.
+     */
+    private boolean notModified(ServletWebRequest request, String variant, String... tables) {
+        MediaType format = ResponseFormats.negotiate(request.getHeader(HttpHeaders.ACCEPT), DOCUMENT_TYPES);
+        if (!format.equals(MediaType.APPLICATION_JSON)) variant += "." + format.getSubtype();
+        DatasetRevisions.Stamp stamp = revisions.stamp(variant, tables);
+        if (request.getResponse() != null) {
+            request.getResponse().setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+            request.getResponse().setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        }
+        return request.checkNotModified(stamp.etag(), stamp.lastModified());
+    }
+
+    static List<RangePredicate> rangePredicates(Map<String, String> params) {
+        List<RangePredicate> out = new ArrayList<>();
+        for (var e : params.entrySet()) {
+            var column = MaterialColumn.fromColumn(e.getKey());
+            if (column.isEmpty() || e.getValue().isBlank()) continue;
+            try {
+                out.add(RangePredicate.parse(column.get(), e.getValue()));
+            } catch (IllegalArgumentException ex) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, ex.getMessage());
+            }
+        }
+        return out;
+    }
 }
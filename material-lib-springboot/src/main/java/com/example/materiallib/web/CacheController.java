@@ -0,0 +1,26 @@
+package com.example.materiallib.web;
+
+import com.example.materiallib.repo.EntityCaches;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api")
+public class CacheController {
+
+    private final EntityCaches caches;
+
+    public CacheController(EntityCaches caches) {
+        this.caches = caches;
+    }
+
+    // Hit/miss/eviction counters of the repository caches.
+    //   GET /api/cache/stats
+    @GetMapping("/cache/stats")
+    public List<EntityCaches.Stats> stats() {
+        return caches.stats();
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.materiallib.web;
+
+import com.example.materiallib.seed.DatasetImporter;
+import com.example.materiallib.seed.ImportException;
+import com.example.materiallib.seed.ImportReport;
+import com.example.materiallib.seed.SeedTable;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+@RestController
+@RequestMapping("/api")
+public class ImportController {
+
+    private static final String NDJSON = "application/x-ndjson";
+
+    private final DatasetImporter importer;
+
+    public ImportController(DatasetImporter importer) {
+        this.importer = importer;
+    }
+
+    // Upserts a streamed body into one table, using the same columns as the bundled CSVs.
+    // Load parents first: materials, conditions, condition_properties, curves, curve_points.
+    //   curl -X POST -H 'Content-Type: text/csv' --data-binary @materials.csv localhost:8080/api/import/materials
+    //   curl -X POST -H 'Content-Type: application/x-ndjson' --data-binary @points.ndjson localhost:8080/api/import/curve_points
+    @PostMapping(value = "/import/{table}", consumes = "text/csv")
+    public ImportReport importCsv(@PathVariable String table, InputStream body) throws IOException {
+        SeedTable target = table(table);
+        try {
+            return importer.importCsv(target, body);
+        } catch (ImportException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    @PostMapping(value = "/import/{table}", consumes = NDJSON)
+    public ImportReport importNdjson(@PathVariable String table, InputStream body) throws IOException {
+        SeedTable target = table(table);
+        try {
+            return importer.importNdjson(target, body);
+        } catch (ImportException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    private static SeedTable table(String name) {
+        try {
+            return SeedTable.fromTable(name);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.materiallib.web;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque keyset cursors: the sort key of the last row of a page, base64url-encoded.
+ * Pages return the cursor of their last row in {@value #HEADER} when they are full;
+ * passing it back as {@code after} continues right after that row.
+ */
+final class PageCursor {
+
+    static final String HEADER = "X-Next-Cursor";
+
+    private PageCursor() {}
+
+    record NameId(String name, long id) {}
+
+    static String of(String name, long id) {
+        return encode(id + ":" + name);
+    }
+
+    static String of(long id) {
+        return encode(Long.toString(id));
+    }
+
+    static NameId nameId(String cursor) {
+        String s = decode(cursor);
+        int sep = s.indexOf(':');
+        if (sep < 0) throw invalid(cursor);
+        return new NameId(s.substring(sep + 1), id(s.substring(0, sep), cursor));
+    }
+
+    static long id(String cursor) {
+        return id(decode(cursor), cursor);
+    }
+
+    private static long id(String s, String cursor) {
+        try {
+            return Long.parseLong(s);
+        } catch (NumberFormatException e) {
+            throw invalid(cursor);
+        }
+    }
+
+    private static String encode(String s) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(s.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String decode(String cursor) {
+        try {
+            return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw invalid(cursor);
+        }
+    }
+
+    private static ResponseStatusException invalid(String cursor) {
+        return new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor: " + cursor);
+    }
+}
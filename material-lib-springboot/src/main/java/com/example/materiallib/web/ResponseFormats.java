@@ -0,0 +1,74 @@
+package com.example.materiallib.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * The binary encodings the API offers next to JSON, for machine clients: CBOR
+ * ({@value #CBOR}) and Smile ({@value #SMILE}) for documents, and CBOR sequences
+ * ({@value #CBOR_SEQ}, RFC 8742) next to NDJSON for streamed exports.
+ * <p>
+ * The mappers are built from Spring Boot's {@link Jackson2ObjectMapperBuilder}, so field
+ * names, null handling and dates match the JSON responses. Handlers returning objects are
+ * negotiated by the message converters; handlers that stream pick a mapper with
+ * {@link #negotiate}.
+ */
+@Component
+public class ResponseFormats {
+
+    public static final String NDJSON = "application/x-ndjson";
+    public static final String CBOR = MediaType.APPLICATION_CBOR_VALUE;
+    public static final String CBOR_SEQ = "application/cbor-seq";
+    public static final String SMILE = "application/x-jackson-smile";
+
+    private final ObjectMapper json;
+    private final ObjectMapper cbor;
+    private final ObjectMapper smile;
+
+    public ResponseFormats(ObjectMapper json, Jackson2ObjectMapperBuilder builder) {
+        this.json = json;
+        this.cbor = builder.factory(new CBORFactory()).build();
+        this.smile = builder.factory(new SmileFactory()).build();
+    }
+
+    public ObjectMapper cbor() {
+        return cbor;
+    }
+
+    public ObjectMapper smile() {
+        return smile;
+    }
+
+    /**
+     * The first of {@code offered} that the Accept header takes, trying accepted types by
+     * descending quality; the first offered type when the header is absent or takes none.
+     */
+    public static MediaType negotiate(String accept, MediaType... offered) {
+        if (accept != null && !accept.isBlank()) {
+            List<MediaType> accepted = new ArrayList<>(MediaType.parseMediaTypes(accept));
+            accepted.sort(Comparator.comparingDouble(MediaType::getQualityValue).reversed());
+            for (MediaType a : accepted) {
+                for (MediaType o : offered) {
+                    if (a.includes(o)) return o;
+                }
+            }
+        }
+        return offered[0];
+    }
+
+    /** Mapper writing {@code type}: JSON (also for NDJSON), CBOR (also for CBOR sequences) or Smile. */
+    public ObjectMapper mapper(MediaType type) {
+        String subtype = type.getSubtype();
+        if (subtype.startsWith("cbor")) return cbor;
+        if (subtype.equals("x-jackson-smile")) return smile;
+        return json;
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.materiallib.web;
+
+import com.example.materiallib.query.CompositionHit;
+import com.example.materiallib.query.CompositionQueryEngine;
+import com.example.materiallib.query.PropertyHit;
+import com.example.materiallib.query.PropertyQueryEngine;
+import com.example.materiallib.search.MaterialSearchIndex;
+import com.example.materiallib.search.SearchHit;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+@RestController
+@RequestMapping("/api")
+public class SearchController {
+
+    private final MaterialSearchIndex index;
+    private final PropertyQueryEngine propertyEngine;
+    private final CompositionQueryEngine compositionEngine;
+
+    public SearchController(MaterialSearchIndex index,
+                            PropertyQueryEngine propertyEngine,
+                            CompositionQueryEngine compositionEngine) {
+        this.index = index;
+        this.propertyEngine = propertyEngine;
+        this.compositionEngine = compositionEngine;
+    }
+
+    // Examples:
+    //   GET /api/search?q=alumin
+    //   GET /api/search?q=aluminium 6061&limit=10   (typo-tolerant, all terms must match)
+    //   GET /api/search?q=S30400
+    @GetMapping("/search")
+    public List<SearchHit> search(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "20") int limit
+    ) {
+        limit = Math.max(1, Math.min(limit, 200));
+        return index.search(q, limit);
+    }
+
+    // Conditions (with their material) whose numeric property lies in a range, ranked by value;
+    // each condition once, with its best matching value in that order.
+    // Values are in the unit stored for the key (see "unit" in the hits), e.g. Pa for strengths.
+    //   GET /api/properties/search?key=endurance_limit&value=2e8..&temperature=20..100
+    //   GET /api/properties/search?key=specific_heat_cp&order=desc&limit=20   (top 20)
+    // With a temperature range, properties without a temperature do not match.
+    @GetMapping("/properties/search")
+    public List<PropertyHit> searchProperties(
+            @RequestParam String key,
+            @RequestParam(required = false) String value,
+            @RequestParam(required = false) String temperature,
+            @RequestParam(defaultValue = "desc") String order,
+            @RequestParam(defaultValue = "50") int limit
+    ) {
+        limit = Math.max(1, Math.min(limit, 1000));
+        boolean descending = switch (order.toLowerCase(Locale.ROOT)) {
+            case "desc" -> true;
+            case "asc" -> false;
+            default -> throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "order must be asc or desc: " + order);
+        };
+        try {
+            return propertyEngine.search(key, ApiController.blankToNull(value), ApiController.blankToNull(temperature), descending, limit);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    // Property keys that have numeric values, for building the search above.
+    //   GET /api/properties/keys
+    @GetMapping("/properties/keys")
+    public Set<String> propertyKeys() {
+        return new TreeSet<>(propertyEngine.index().keys());
+    }
+
+    // Conditions by composition (wt%), clauses joined with & or a comma. A constituent that is
+    // absent from a composition counts as 0, so "Cu<=2" also matches compositions without Cu.
+    // Constituent names are matched ignoring case; one that no composition has, or an inverted
+    // range (Mg between 2 and 1), is a 400.
+    //   GET /api/compositions/search?q=Cu<=2 & Mg between 0.5 and 1.2
+    //   GET /api/compositions/search?q=Al>=90,Si=0.4..0.8&limit=50
+    @GetMapping("/compositions/search")
+    public List<CompositionHit> searchCompositions(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "100") int limit
+    ) {
+        limit = Math.max(1, Math.min(limit, 5000));
+        try {
+            return compositionEngine.search(q, limit);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    // Constituents that appear in compositions, with how many compositions contain each.
+    //   GET /api/compositions/constituents
+    @GetMapping("/compositions/constituents")
+    public Map<String, Integer> compositionConstituents() {
+        return compositionEngine.index().constituents();
+    }
+}
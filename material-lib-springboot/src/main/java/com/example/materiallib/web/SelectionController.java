@@ -0,0 +1,88 @@
+package com.example.materiallib.web;
+
+import com.example.materiallib.query.RangePredicate;
+import com.example.materiallib.selection.IndexRanking;
+import com.example.materiallib.selection.Objective;
+import com.example.materiallib.selection.ParetoResult;
+import com.example.materiallib.selection.PerformanceIndex;
+import com.example.materiallib.selection.SelectionEngine;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+@RestController
+@RequestMapping("/api/selection")
+public class SelectionController {
+
+    private final SelectionEngine engine;
+
+    public SelectionController(SelectionEngine engine) {
+        this.engine = engine;
+    }
+
+    // Pareto-optimal materials on two or more performance indices. Objectives are "max:" or
+    // "min:" followed by an index: a product of numeric columns with powers, or a preset name.
+    // Filters are those of /api/materials (category, name, numeric ranges).
+    //   GET /api/selection/pareto?objectives=max:yield_strength,min:density&category=metal
+    //   GET /api/selection/pareto?objectives=max:stiff_beam,max:strong_beam&fronts=3
+    @GetMapping("/pareto")
+    public ParetoResult pareto(
+            @RequestParam List<String> objectives,
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) String name,
+            @RequestParam(defaultValue = "1") int fronts,
+            @RequestParam(defaultValue = "200") int limit,
+            @RequestParam Map<String, String> params
+    ) {
+        fronts = Math.max(1, Math.min(fronts, 20));
+        limit = Math.max(1, Math.min(limit, 5000));
+        try {
+            List<Objective> parsed = objectives.stream().map(Objective::parse).toList();
+            return engine.pareto(parsed, ApiController.rangePredicates(params),
+                    ApiController.blankToNull(category), ApiController.blankToNull(name), fronts, limit);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    // Materials ranked by one performance index, e.g. the 20 best light stiff beams.
+    //   GET /api/selection/rank?index=youngs_modulus^(1/2)/density&limit=20
+    //   GET /api/selection/rank?index=stiff_tie&order=desc&category=metal
+    @GetMapping("/rank")
+    public IndexRanking rank(
+            @RequestParam String index,
+            @RequestParam(defaultValue = "desc") String order,
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) String name,
+            @RequestParam(defaultValue = "20") int limit,
+            @RequestParam Map<String, String> params
+    ) {
+        limit = Math.max(1, Math.min(limit, 1000));
+        boolean descending = switch (order.toLowerCase(Locale.ROOT)) {
+            case "desc" -> true;
+            case "asc" -> false;
+            default -> throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "order must be asc or desc: " + order);
+        };
+        try {
+            return engine.rank(PerformanceIndex.parse(index), descending, ApiController.rangePredicates(params),
+                    ApiController.blankToNull(category), ApiController.blankToNull(name), limit);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    // Preset index names and their expressions.
+    //   GET /api/selection/indices
+    @GetMapping("/indices")
+    public Map<String, String> indices() {
+        return new TreeMap<>(PerformanceIndex.PRESETS);
+    }
+}
@@ -0,0 +1,165 @@
+package com.example.materiallib.web;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.WebUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+
+/**
+ * Holds response bodies of up to {@code threshold} bytes and sends them with a
+ * {@code Content-Length}. Tomcat only applies {@code server.compression.min-response-size}
+ * to responses of known length, and Jackson and streamed bodies are otherwise chunked, so
+ * every one of them was gzipped however small. A body that outgrows the threshold is
+ * released as soon as it does, and is then streamed and compressed as before.
+ */
+public class SmallResponseFilter extends OncePerRequestFilter {
+
+    private final int threshold;
+
+    public SmallResponseFilter(int threshold) {
+        this.threshold = threshold;
+    }
+
+    /** Streamed responses finish in an async dispatch, which sends what was held. */
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    /** Error bodies are small too. */
+    @Override
+    protected boolean shouldNotFilterErrorDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        HoldingResponse held = WebUtils.getNativeResponse(response, HoldingResponse.class);
+        if (held == null) {
+            held = new HoldingResponse(response, threshold);
+            response = held;
+        }
+        chain.doFilter(request, response);
+        if (!isAsyncStarted(request)) held.finish();
+    }
+
+    private static final class HoldingResponse extends HttpServletResponseWrapper {
+
+        private final int threshold;
+        private final ByteArrayOutputStream held = new ByteArrayOutputStream(256);
+        private boolean released;
+        private ServletOutputStream stream;
+        private PrintWriter writer;
+
+        HoldingResponse(HttpServletResponse response, int threshold) {
+            super(response);
+            this.threshold = threshold;
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() {
+            if (stream == null) stream = new HoldingStream();
+            return stream;
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            if (writer == null) {
+                writer = new PrintWriter(new OutputStreamWriter(getOutputStream(), getCharacterEncoding()));
+            }
+            return writer;
+        }
+
+        /** Message converters flush after every body; that must not commit a held one. */
+        @Override
+        public void flushBuffer() throws IOException {
+            if (released) super.flushBuffer();
+        }
+
+        @Override
+        public void resetBuffer() {
+            super.resetBuffer();
+            held.reset();
+        }
+
+        @Override
+        public void reset() {
+            super.reset();
+            held.reset();
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            held.reset();
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            held.reset();
+            super.sendError(sc, msg);
+        }
+
+        /** Sends the held body, if it was never released, with its length. */
+        void finish() throws IOException {
+            if (writer != null) writer.flush();
+            if (released) return;
+            released = true;
+            if (held.size() == 0) return;
+            if (!isCommitted()) setContentLength(held.size());
+            held.writeTo(super.getOutputStream());
+        }
+
+        private void write(byte[] b, int off, int len) throws IOException {
+            if (!released) {
+                if (held.size() + len <= threshold) {
+                    held.write(b, off, len);
+                    return;
+                }
+                released = true;
+                held.writeTo(super.getOutputStream());
+                held.reset();
+            }
+            super.getOutputStream().write(b, off, len);
+        }
+
+        private final class HoldingStream extends ServletOutputStream {
+
+            @Override
+            public void write(int b) throws IOException {
+                HoldingResponse.this.write(new byte[]{(byte) b}, 0, 1);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                HoldingResponse.this.write(b, off, len);
+            }
+
+            @Override
+            public void flush() throws IOException {
+                if (released) HoldingResponse.super.getOutputStream().flush();
+            }
+
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            @Override
+            public void setWriteListener(WriteListener listener) {
+                throw new UnsupportedOperationException("Non-blocking writes are not supported");
+            }
+        }
+    }
+}
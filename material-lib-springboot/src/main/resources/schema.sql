@@ -30,6 +30,9 @@ CREATE TABLE IF NOT EXISTS materials (
   FOREIGN KEY (default_condition_id) REFERENCES conditions(id)
 );
 
+-- Serves the (name, id) keyset pages: the index carries the rowid (id) after name.
+CREATE INDEX IF NOT EXISTS idx_materials_name ON materials(name);
+
 CREATE TABLE IF NOT EXISTS conditions (
   id INTEGER PRIMARY KEY,
   material_id INTEGER NOT NULL,
@@ -103,4 +106,29 @@ CREATE TABLE IF NOT EXISTS curve_points (
   FOREIGN KEY (curve_id) REFERENCES curves(id) ON DELETE CASCADE
 );
 
-CREATE INDEX IF NOT EXISTS idx_curve_points_curve_id ON curve_points(curve_id);
+-- Lookups by curve_id are served by the primary key; this index only slowed inserts.
+DROP INDEX IF EXISTS idx_curve_points_curve_id;
+
+-- One row per curve holding its points packed as little-endian float64 arrays
+-- (x[n], y[n], then z[n] when has_z = 1). Derived from curve_points at seed time.
+CREATE TABLE IF NOT EXISTS curve_point_blobs (
+  curve_id INTEGER PRIMARY KEY,
+  n INTEGER NOT NULL,
+  has_z INTEGER NOT NULL DEFAULT 0,
+  data BLOB NOT NULL,
+  FOREIGN KEY (curve_id) REFERENCES curves(id) ON DELETE CASCADE
+);
+
+-- Bookkeeping for incremental seeding: schema/dataset versions, per-file fingerprints and
+-- hashes, and one content hash per row (or per group of rows, see SeedTable) of each table.
+CREATE TABLE IF NOT EXISTS dataset_meta (
+  key TEXT PRIMARY KEY,
+  value TEXT
+);
+
+CREATE TABLE IF NOT EXISTS dataset_row_hashes (
+  tbl TEXT NOT NULL,
+  row_key INTEGER NOT NULL,
+  hash INTEGER NOT NULL,
+  PRIMARY KEY (tbl, row_key)
+) WITHOUT ROWID;
@@ -0,0 +1,51 @@
+package com.example.materiallib.curve;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InterpolantTest {
+
+    private static final double[] X = {1e3, 1e4, 1e5, 1e6};
+    private static final double[] Y = {400, 350, 300, 250};
+
+    @Test
+    void nanXEvaluatesToNaN() {
+        for (InterpolationMode mode : InterpolationMode.values()) {
+            Interpolant f = Interpolant.of(mode, X, Y);
+            assertTrue(Double.isNaN(f.evaluate(Double.NaN)), mode.name());
+            for (Extrapolation e : Extrapolation.values()) {
+                assertTrue(Double.isNaN(f.evaluate(Double.NaN, e)), mode + "/" + e);
+            }
+        }
+    }
+
+    @Test
+    void negativeXInLogLogEvaluatesToNaN() {
+        Interpolant f = Interpolant.of(InterpolationMode.LOG_LOG, X, Y);
+        assertTrue(Double.isNaN(f.evaluate(-5)));
+        assertTrue(Double.isNaN(f.evaluate(-5, Extrapolation.CLAMP)));
+    }
+
+    @Test
+    void endsAreClamped() {
+        Interpolant f = Interpolant.of(InterpolationMode.LINEAR, X, Y);
+        assertEquals(400, f.evaluate(-5));
+        assertEquals(250, f.evaluate(Double.POSITIVE_INFINITY));
+        assertEquals(375, f.evaluate(5.5e3));
+    }
+
+    @Test
+    void checkDomainRejectsNonFiniteAndNonPositiveLogX() {
+        Interpolant linear = Interpolant.of(InterpolationMode.LINEAR, X, Y);
+        Interpolant logLog = Interpolant.of(InterpolationMode.LOG_LOG, X, Y);
+        assertThrows(IllegalArgumentException.class, () -> linear.checkDomain("x", new double[]{1, Double.NaN}));
+        assertThrows(IllegalArgumentException.class, () -> linear.checkDomain("x", new double[]{Double.NEGATIVE_INFINITY}));
+        assertThrows(IllegalArgumentException.class, () -> logLog.checkDomain("x", new double[]{-5}));
+        assertThrows(IllegalArgumentException.class, () -> logLog.checkDomain("x", new double[]{0}));
+        linear.checkDomain("x", new double[]{-5, 0, 1e9});
+        logLog.checkDomain("x", new double[]{1e-3, 1e9});
+    }
+}
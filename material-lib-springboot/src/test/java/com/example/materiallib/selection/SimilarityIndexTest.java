@@ -0,0 +1,64 @@
+package com.example.materiallib.selection;
+
+import com.example.materiallib.query.MaterialColumn;
+import com.example.materiallib.query.MaterialQueryEngine;
+import com.example.materiallib.query.MaterialSnapshot;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SimilarityIndexTest {
+
+    /** Four materials with only a density, 1, 2, 50 and 100, in arrays padded past the last row. */
+    private static SimilarityIndex index() {
+        int capacity = 8;
+        double[][] columns = new double[MaterialColumn.values().length][capacity];
+        for (double[] column : columns) Arrays.fill(column, 0, 4, Double.NaN);
+        double[] density = columns[MaterialColumn.DENSITY.ordinal()];
+        density[0] = 1;
+        density[1] = 2;
+        density[2] = 50;
+        density[3] = 100;
+        MaterialSnapshot snapshot = new MaterialSnapshot(4,
+                Arrays.copyOf(new long[]{1, 2, 3, 4}, capacity),
+                Arrays.copyOf(new String[]{"a", "b", "c", "d"}, capacity),
+                Arrays.copyOf(new String[]{"metal", "metal", "metal", "polymer"}, capacity),
+                columns);
+        return new SimilarityIndex(new MaterialQueryEngine(null) {
+            @Override
+            public MaterialSnapshot snapshot() {
+                return snapshot;
+            }
+        });
+    }
+
+    private static List<Long> ids(List<SimilarMaterial> similar) {
+        return similar.stream().map(SimilarMaterial::id).toList();
+    }
+
+    @Test
+    void positiveColumnsAreComparedOnALogScale() {
+        // linearly 2 would be nearer to 50 than 100 is; in log space 100 is
+        List<SimilarMaterial> similar = index().similar(3, SimilarityIndex.weights(null, null), null, 3).orElseThrow();
+        assertEquals(List.of(4L, 2L, 1L), ids(similar));
+        assertEquals(1, similar.get(0).sharedFeatures());
+    }
+
+    @Test
+    void categoryAndKNarrowTheResult() {
+        SimilarityIndex index = index();
+        float[] weights = SimilarityIndex.weights("density", null);
+        assertEquals(List.of(2L, 1L), ids(index.similar(3, weights, "metal", 5).orElseThrow()));
+        assertEquals(List.of(2L), ids(index.similar(1, weights, null, 1).orElseThrow()));
+        assertEquals(List.of(), ids(index.similar(3, weights, "ceramic", 5).orElseThrow()));
+    }
+
+    @Test
+    void unknownMaterialIsEmpty() {
+        assertTrue(index().similar(99, SimilarityIndex.weights(null, null), null, 3).isEmpty());
+    }
+}